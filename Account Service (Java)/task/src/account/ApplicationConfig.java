@@ -2,14 +2,14 @@ package account;
 
 import account.dtos.PayrollDTO;
 import account.models.Payroll;
+import account.requestBodies.PayrollRequest;
+import account.utils.PayrollFormatter;
 import org.modelmapper.Converter;
 import org.modelmapper.ModelMapper;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.time.Month;
-import java.time.format.TextStyle;
-import java.util.Locale;
+import java.time.YearMonth;
 
 @Configuration
 public class ApplicationConfig {
@@ -25,26 +25,16 @@ public class ApplicationConfig {
                     mapper.using(periodConverter).map(Payroll::getPeriod, PayrollDTO::setPeriod);
                     mapper.using(salaryConverter).map(Payroll::getSalary, PayrollDTO::setSalary);
                 });
+        modelMapper.typeMap(Payroll.class, PayrollRequest.class)
+                .addMappings(mapper -> mapper.using(periodFormatter).map(Payroll::getPeriod, PayrollRequest::setPeriod));
         return modelMapper;
     }
 
-    private final Converter<String, String> periodConverter = ctx -> {
-        String period = ctx.getSource();
-        String numMonth = period.substring(0, 2);
-        Month month = Month.of(Integer.parseInt(numMonth));
-        String name = month.getDisplayName(TextStyle.FULL, Locale.ENGLISH);
-        return period.replaceFirst(numMonth, name);
-    };
-
-    private final Converter<Long, String> salaryConverter = ctx -> {
-        long salaryInCents = ctx.getSource();
-        double salary = (double) salaryInCents / 100;
-        String string = String.valueOf(salary);
-        String[] strings = string.split("\\.");
-        String integers = strings[0];
-        String decimals = strings[1];
-        return "%s dollar(s) %s cent(s)".formatted(integers, decimals);
-    };
+    private final Converter<YearMonth, String> periodConverter = ctx -> PayrollFormatter.formatPeriod(ctx.getSource());
+
+    private final Converter<YearMonth, String> periodFormatter = ctx -> ctx.getSource().format(Payroll.PERIOD_FORMATTER);
+
+    private final Converter<Long, String> salaryConverter = ctx -> PayrollFormatter.formatSalary(ctx.getSource());
 
 
 }
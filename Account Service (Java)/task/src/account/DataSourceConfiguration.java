@@ -0,0 +1,49 @@
+package account;
+
+import account.authenticationHandler.BoundedPasswordEncoder;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Slf4j
+@Configuration
+public class DataSourceConfiguration {
+
+    /*
+     * Sizes the Hikari pool when account.datasource.pool-size is set: a positive value is taken as is and 0 is
+     * derived with poolSizeFor. Without the property Hikari's default of 10 applies. The pool is kept full,
+     * as Hikari recommends for a fixed size.
+     */
+    @Bean
+    static BeanPostProcessor hikariPoolSizing(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                Integer configured = environment.getProperty("account.datasource.pool-size", Integer.class);
+                if (configured == null || !(bean instanceof HikariDataSource dataSource)) {
+                    return bean;
+                }
+                int processors = Runtime.getRuntime().availableProcessors();
+                int hashingThreads = BoundedPasswordEncoder.threadsFor(environment.getProperty("account.security.hashing.threads", Integer.class, 0));
+                int size = configured > 0 ? configured : poolSizeFor(processors, hashingThreads);
+                dataSource.setMaximumPoolSize(size);
+                dataSource.setMinimumIdle(size);
+                log.info("Connection pool holds {} connections ({} processors, {} hashing threads)", size, processors, hashingThreads);
+                return bean;
+            }
+        };
+    }
+
+    /*
+     * H2 runs embedded, so every statement executes on the thread that holds the connection and competes for
+     * the same cores as the request threads and the password hashing pool, which never holds a connection.
+     * Twice the cores left to the rest keeps them busy while some connections wait on a row lock or a commit;
+     * more connections would only queue inside H2.
+     */
+    static int poolSizeFor(int processors, int hashingThreads) {
+        return Math.max(2, 2 * (processors - hashingThreads));
+    }
+}
@@ -1,22 +1,45 @@
 package account;
 
+import account.authenticationHandler.BCryptCalibration;
+import account.authenticationHandler.BearerTokenAuthenticationFilter;
+import account.authenticationHandler.BoundedPasswordEncoder;
+import account.authenticationHandler.CachingAuthenticationProvider;
+import account.authenticationHandler.LoginRateLimitFilter;
+import account.exceptions.PasswordHashingRejectedException;
 import account.responses.HttpErrorResponse;
+import account.services.LoginRateLimiter;
+import account.services.SecurityEventService;
+import account.services.TokenService;
+import account.services.UserDetailsServiceImpl;
+import account.services.VerifiedCredentialCache;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.ExceptionHandlingConfigurer;
 import org.springframework.security.config.annotation.web.configurers.HeadersConfigurer;
+import org.springframework.security.config.annotation.web.configurers.HttpBasicConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationEntryPoint;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+
+import java.time.Duration;
+import java.util.Map;
 
 
 @Configuration
@@ -24,13 +47,39 @@ public class WebSecurityConfiguration {
     @Autowired
     private ObjectMapper objectMapper;
 
+    /*
+     * New hashes are stored as {bcrypt}$2a$<strength>$..., where the strength is either configured or
+     * calibrated at startup to fit the latency budget. Hashes without a prefix (stored before) and hashes of
+     * a lower strength still match and are rehashed on the next successful login.
+     * BCrypt runs on its own bounded pool, see BoundedPasswordEncoder.
+     */
+    @Bean
+    PasswordEncoder passwordEncoder(
+            MeterRegistry meterRegistry,
+            @Value("${account.security.hashing.threads:0}") int threads,
+            @Value("${account.security.hashing.queue-capacity:100}") int queueCapacity,
+            @Value("${account.security.password.strength:13}") int strength,
+            @Value("${account.security.password.latency-budget:500ms}") Duration latencyBudget,
+            @Value("${account.security.password.min-strength:10}") int minStrength,
+            @Value("${account.security.password.max-strength:14}") int maxStrength
+    ) {
+        if (strength <= 0) {
+            strength = BCryptCalibration.strengthFor(latencyBudget, minStrength, maxStrength);
+        }
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", new BCryptPasswordEncoder(strength)));
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return new BoundedPasswordEncoder(encoder, BoundedPasswordEncoder.threadsFor(threads), queueCapacity, meterRegistry);
+    }
+
     @Bean
-    PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(13);
+    AuthenticationProvider authenticationProvider(UserDetailsServiceImpl userDetailsService, PasswordEncoder passwordEncoder, VerifiedCredentialCache credentialCache) {
+        CachingAuthenticationProvider provider = new CachingAuthenticationProvider(userDetailsService, passwordEncoder, credentialCache);
+        provider.setUserDetailsPasswordService(userDetailsService);
+        return provider;
     }
 
     @Bean
-    SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    SecurityFilterChain filterChain(HttpSecurity http, TokenService tokenService, LoginRateLimiter rateLimiter, SecurityEventService securityEventService) throws Exception {
         return http
                 .csrf(csrf -> {
                     csrf.disable();
@@ -61,12 +110,31 @@ public class WebSecurityConfiguration {
                         .anyRequest().authenticated()
                 )
                 .exceptionHandling(getExceptionHandler())
-                .httpBasic(Customizer.withDefaults())
+                .httpBasic(getBasicAuthentication())
+                .addFilterBefore(new LoginRateLimitFilter(rateLimiter, securityEventService, objectMapper), BasicAuthenticationFilter.class)
+                .addFilterBefore(new BearerTokenAuthenticationFilter(tokenService, objectMapper, "/api/auth/token"), BasicAuthenticationFilter.class)
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .build();
 
     }
 
+    /* Same as the default, except that a saturated hashing pool is reported as 503 rather than bad credentials */
+    private Customizer<HttpBasicConfigurer<HttpSecurity>> getBasicAuthentication() {
+        BasicAuthenticationEntryPoint basicEntryPoint = new BasicAuthenticationEntryPoint();
+        basicEntryPoint.setRealmName("Realm");
+        AuthenticationEntryPoint entryPoint = (req, res, ex) -> {
+            if (ex instanceof PasswordHashingRejectedException) {
+                res.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+                res.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                res.getWriter().write(objectMapper.writeValueAsString(HttpErrorResponse.serviceUnavailable(ex.getMessage(), req.getRequestURI())));
+                return;
+            }
+            basicEntryPoint.commence(req, res, ex);
+        };
+        return basic -> basic.authenticationEntryPoint(entryPoint);
+    }
+
     private Customizer<ExceptionHandlingConfigurer<HttpSecurity>> getExceptionHandler() {
         return exHandler -> {
             exHandler.accessDeniedHandler((req, res, ex) -> {
@@ -0,0 +1,40 @@
+package account.authenticationHandler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * Picks the BCrypt strength for this machine: times a few verifications at {@code minStrength} and
+ * doubles the estimate, as each extra round does, while it still fits the latency budget.
+ */
+@Slf4j
+public final class BCryptCalibration {
+    private static final String PROBE = "calibration-password";
+    private static final int SAMPLES = 3;
+
+    private BCryptCalibration() {
+    }
+
+    public static int strengthFor(Duration budget, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(minStrength);
+        String hash = encoder.encode(PROBE);
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.matches(PROBE, hash);
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+
+        int strength = minStrength;
+        long estimate = fastest;
+        while (strength < maxStrength && estimate * 2 <= budget.toNanos()) {
+            strength++;
+            estimate *= 2;
+        }
+        log.info("BCrypt strength {} takes about {} ms per hash (budget {} ms)",
+                strength, Duration.ofNanos(estimate).toMillis(), budget.toMillis());
+        return strength;
+    }
+}
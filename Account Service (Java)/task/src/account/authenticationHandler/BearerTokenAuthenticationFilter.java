@@ -0,0 +1,68 @@
+package account.authenticationHandler;
+
+import account.responses.HttpErrorResponse;
+import account.services.TokenService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Authenticates requests carrying an {@code Authorization: Bearer} token issued by {@link TokenService}.
+ * Validation only checks the signature, expiry and revocation generation, so it never touches the database
+ * or the password encoder. The token endpoint itself is skipped so that tokens cannot renew themselves.
+ */
+public class BearerTokenAuthenticationFilter extends OncePerRequestFilter {
+    private static final String PREFIX = "Bearer ";
+
+    private final TokenService tokenService;
+    private final ObjectMapper objectMapper;
+    private final String tokenEndpoint;
+
+    public BearerTokenAuthenticationFilter(TokenService tokenService, ObjectMapper objectMapper, String tokenEndpoint) {
+        this.tokenService = tokenService;
+        this.objectMapper = objectMapper;
+        this.tokenEndpoint = tokenEndpoint;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        return header == null
+                || !header.regionMatches(true, 0, PREFIX, 0, PREFIX.length())
+                || request.getRequestURI().equals(tokenEndpoint);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+        String token = request.getHeader(HttpHeaders.AUTHORIZATION).substring(PREFIX.length()).trim();
+        Optional<UserDetails> principal = tokenService.verify(token);
+
+        if (principal.isEmpty()) {
+            SecurityContextHolder.clearContext();
+            response.setStatus(HttpStatus.UNAUTHORIZED.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            HttpErrorResponse body = HttpErrorResponse.unauthorized("Invalid or expired token", request.getRequestURI());
+            objectMapper.writeValue(response.getOutputStream(), body);
+            return;
+        }
+
+        UserDetails user = principal.get();
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities()));
+        SecurityContextHolder.setContext(context);
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,94 @@
+package account.authenticationHandler;
+
+import account.exceptions.PasswordHashingRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs {@link #encode} and {@link #matches} of the delegate on a fixed pool of {@code threads} workers
+ * with a queue of {@code queueCapacity}, so that a burst of logins cannot take more than that many cores
+ * away from other requests. The calling thread waits for the result. When the queue is full the call fails
+ * at once with {@link PasswordHashingRejectedException}. The workers stay platform threads when requests run
+ * on virtual threads: hashing is CPU-bound, and this pool is what keeps an unbounded number of request
+ * threads from hashing at the same time.
+ * <p>
+ * Pool size, active and queued tasks are published as {@code executor.*} metrics tagged
+ * {@code name=passwordHashing}, rejections as {@code password.hashing.rejected}.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+    public static final String EXECUTOR_NAME = "passwordHashing";
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Counter rejectedCounter;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.rejectedCounter = Counter.builder("password.hashing.rejected")
+                .description("Password hashes and verifications refused because the hashing pool was saturated")
+                .register(meterRegistry);
+        new ExecutorServiceMetrics(executor, EXECUTOR_NAME, List.of()).bindTo(meterRegistry);
+    }
+
+    /* Number of workers for the configured {@code account.security.hashing.threads}, 0 uses half of the available processors */
+    public static int threadsFor(int configured) {
+        return configured > 0 ? configured : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return call(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return call(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> T call(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new PasswordHashingRejectedException();
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing a password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Cannot hash password", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package account.authenticationHandler;
+
+import account.services.VerifiedCredentialCache;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * {@link DaoAuthenticationProvider} that consults the {@link VerifiedCredentialCache} before
+ * falling back to the (expensive) password encoder.
+ */
+public class CachingAuthenticationProvider extends DaoAuthenticationProvider {
+    private final VerifiedCredentialCache credentialCache;
+
+    public CachingAuthenticationProvider(UserDetailsService userDetailsService, PasswordEncoder passwordEncoder, VerifiedCredentialCache credentialCache) {
+        this.credentialCache = credentialCache;
+        setUserDetailsService(userDetailsService);
+        setPasswordEncoder(passwordEncoder);
+    }
+
+    @Override
+    protected void additionalAuthenticationChecks(UserDetails userDetails, UsernamePasswordAuthenticationToken authentication) throws AuthenticationException {
+        Object credentials = authentication.getCredentials();
+        if (credentials != null && credentialCache.isVerified(userDetails.getUsername(), credentials.toString(), userDetails.getPassword())) {
+            return;
+        }
+
+        super.additionalAuthenticationChecks(userDetails, authentication);
+        credentialCache.markVerified(userDetails.getUsername(), credentials.toString(), userDetails.getPassword());
+    }
+}
@@ -1,9 +1,9 @@
 package account.authenticationHandler;
 
-import account.exceptions.EmployeeNotFoundException;
-import account.models.Employee;
 import account.services.EmployeeService;
+import account.services.LoginAttemptCounter;
 import account.services.SecurityEventService;
+import account.services.UserDetailsServiceImpl;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.context.ApplicationListener;
 import org.springframework.security.authentication.event.AuthenticationFailureBadCredentialsEvent;
@@ -14,11 +14,15 @@ import org.springframework.stereotype.Component;
 public class LoginFailedHandler implements ApplicationListener<AuthenticationFailureBadCredentialsEvent> {
     private final EmployeeService employeeService;
     private final SecurityEventService securityEventService;
+    private final UserDetailsServiceImpl userDetailsService;
+    private final LoginAttemptCounter loginAttemptCounter;
     private final HttpServletRequest request;
 
-    public LoginFailedHandler(EmployeeService employeeService, SecurityEventService securityEventService, HttpServletRequest request) {
+    public LoginFailedHandler(EmployeeService employeeService, SecurityEventService securityEventService, UserDetailsServiceImpl userDetailsService, LoginAttemptCounter loginAttemptCounter, HttpServletRequest request) {
         this.employeeService = employeeService;
         this.securityEventService = securityEventService;
+        this.userDetailsService = userDetailsService;
+        this.loginAttemptCounter = loginAttemptCounter;
         this.request = request;
     }
 
@@ -31,21 +35,16 @@ public class LoginFailedHandler implements ApplicationListener<AuthenticationFai
 //        Collection<? extends GrantedAuthority> authorities = authentication.getAuthorities();
 
         String path = request.getRequestURI();
-        employeeService.updateLoginAttempts(principal);
-        logSecurityEvent(principal, path);
-    }
+        // the failure may come from a stale cached password hash, reload the user on the next attempt
+        userDetailsService.evict(principal);
+        int attempts = loginAttemptCounter.recordFailure(principal);
 
-    private void logSecurityEvent(String principal, String path) {
-        Employee employee = employeeService.findByEmail(principal).orElseThrow(EmployeeNotFoundException::new);
-        if (employee.getLoginInformation().isLocked()) {
-            securityEventService.logLockUser(principal, principal, path);
-        }
-        if (employee.getLoginInformation().getLoginAttempts() == 0) {
-            securityEventService.logLoginFailed(principal, principal, path);
-        }
-        if (employee.getLoginInformation().getLoginAttempts() > 0) {
+        securityEventService.logLoginFailed(principal, principal, path);
+        if (loginAttemptCounter.isLockingAttempt(attempts)) {
             securityEventService.logBruteForce(principal, principal, path);
+            if (employeeService.lockAfterFailedLogins(principal)) {
+                securityEventService.logLockUser(principal, principal, path);
+            }
         }
     }
 }
-
@@ -0,0 +1,80 @@
+package account.authenticationHandler;
+
+import account.responses.HttpErrorResponse;
+import account.services.LoginRateLimiter;
+import account.services.SecurityEventService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Rejects HTTP Basic attempts with {@code 429 Too Many Requests} once the client IP or the username has
+ * used up its {@link LoginRateLimiter} bucket, before the password reaches the encoder. Requests that end
+ * with {@code 401} take a token from both buckets; the failure that empties one is logged as
+ * {@code BRUTE_FORCE}.
+ */
+public class LoginRateLimitFilter extends OncePerRequestFilter {
+    private static final String PREFIX = "Basic ";
+
+    private final LoginRateLimiter rateLimiter;
+    private final SecurityEventService securityEventService;
+    private final ObjectMapper objectMapper;
+
+    public LoginRateLimitFilter(LoginRateLimiter rateLimiter, SecurityEventService securityEventService, ObjectMapper objectMapper) {
+        this.rateLimiter = rateLimiter;
+        this.securityEventService = securityEventService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        return header == null || !header.regionMatches(true, 0, PREFIX, 0, PREFIX.length());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+        String username = username(request.getHeader(HttpHeaders.AUTHORIZATION));
+        if (username == null) {
+            // malformed, BasicAuthenticationFilter rejects it without hashing anything
+            chain.doFilter(request, response);
+            return;
+        }
+        String ip = request.getRemoteAddr();
+        String path = request.getRequestURI();
+
+        if (!rateLimiter.tryAcquire(ip, username)) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, rateLimiter.retryAfter(ip, username).toSeconds())));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), HttpErrorResponse.tooManyRequests("Too many failed login attempts", path));
+            return;
+        }
+
+        chain.doFilter(request, response);
+
+        if (response.getStatus() == HttpStatus.UNAUTHORIZED.value() && rateLimiter.recordFailure(ip, username)) {
+            securityEventService.logBruteForce(username, username, path);
+        }
+    }
+
+    private static String username(String header) {
+        try {
+            String credentials = new String(Base64.getDecoder().decode(header.substring(PREFIX.length()).trim()), StandardCharsets.UTF_8);
+            int colon = credentials.indexOf(':');
+            return colon < 0 ? null : credentials.substring(0, colon);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
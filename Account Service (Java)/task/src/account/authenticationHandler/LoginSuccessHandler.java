@@ -1,6 +1,7 @@
 package account.authenticationHandler;
 
 import account.services.EmployeeService;
+import account.services.LoginAttemptCounter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationListener;
 import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
@@ -10,18 +11,23 @@ import org.springframework.stereotype.Component;
 @Component
 public class LoginSuccessHandler implements ApplicationListener<AuthenticationSuccessEvent> {
     private final EmployeeService employeeService;
+    private final LoginAttemptCounter loginAttemptCounter;
 
 
     @Autowired
-    public LoginSuccessHandler(EmployeeService employeeService) {
+    public LoginSuccessHandler(EmployeeService employeeService, LoginAttemptCounter loginAttemptCounter) {
         this.employeeService = employeeService;
+        this.loginAttemptCounter = loginAttemptCounter;
     }
 
     @Override
     public void onApplicationEvent(AuthenticationSuccessEvent event) {
         UserDetails principal = (UserDetails) event.getAuthentication().getPrincipal();
 
-        employeeService.resetLoginAttempts(principal.getUsername());
+        // the counter knows every user with failed attempts, most logins have nothing to reset
+        if (loginAttemptCounter.getFailures(principal.getUsername()) > 0) {
+            employeeService.resetLoginAttempts(principal.getUsername());
+        }
 
     }
 }
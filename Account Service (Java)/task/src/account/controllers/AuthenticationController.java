@@ -4,7 +4,9 @@ import account.models.Employee;
 import account.requestBodies.NewPasswordRequest;
 import account.responses.PasswordChangedResponse;
 import account.responses.SignupResponse;
+import account.responses.TokenResponse;
 import account.services.EmployeeService;
+import account.services.TokenService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -15,9 +17,11 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/api/auth")
 public class AuthenticationController {
     private final EmployeeService service;
+    private final TokenService tokenService;
 
-    public AuthenticationController(EmployeeService employeeService) {
+    public AuthenticationController(EmployeeService employeeService, TokenService tokenService) {
         this.service = employeeService;
+        this.tokenService = tokenService;
     }
 
     @PostMapping("/signup")
@@ -31,4 +35,10 @@ public class AuthenticationController {
     public PasswordChangedResponse changePassword(@AuthenticationPrincipal UserDetails userDetails, @Valid @RequestBody NewPasswordRequest body) {
         return service.updatePassword(userDetails.getUsername(), body.getPassword());
     }
+
+    @PostMapping("/token")
+    @ResponseStatus(HttpStatus.OK)
+    public TokenResponse issueToken(@AuthenticationPrincipal UserDetails userDetails) {
+        return tokenService.issue(userDetails);
+    }
 }
@@ -1,6 +1,7 @@
 package account.controllers;
 
 import account.dtos.EmployeeDTO;
+import account.requestBodies.EmployeeSort;
 import account.requestBodies.UpdateRoleRequest;
 import account.requestBodies.UserLockOperation;
 import account.responses.RemoveEmployeeResponse;
@@ -9,19 +10,29 @@ import account.services.EmployeeService;
 import account.utils.Regex;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Pattern;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Locale;
 
+/**
+ * Without {@code limit} every user is listed in id order. With {@code limit} a single page is returned,
+ * ordered by {@code sort} ({@code id} or {@code email}) and optionally restricted to holders of {@code role};
+ * {@code X-Next-Cursor} then carries the value to pass as {@code after} for the next page.
+ */
 @RestController
 @RequestMapping("/api/admin/user")
 @Validated
 public class EmployeeController {
+    public static final int MAX_PAGE_SIZE = 1000;
 
     private final EmployeeService employeeService;
 
@@ -35,6 +46,23 @@ public class EmployeeController {
         return employeeService.getAllEmployee();
     }
 
+    @GetMapping(params = "limit")
+    public ResponseEntity<List<EmployeeDTO>> getUsersPage(
+            @RequestParam(required = false) String role,
+            @RequestParam(defaultValue = "id") @Pattern(regexp = "id|email", message = "Sort must be id or email!") String sort,
+            @RequestParam(required = false) String after,
+            @RequestParam @Min(1) @Max(MAX_PAGE_SIZE) int limit
+    ) {
+        EmployeeSort order = EmployeeSort.valueOf(sort.toUpperCase(Locale.ROOT));
+        List<EmployeeDTO> page = employeeService.getEmployees(role, order, after, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == limit) {
+            EmployeeDTO last = page.get(page.size() - 1);
+            response.header(SecurityController.NEXT_CURSOR_HEADER, order == EmployeeSort.EMAIL ? last.getEmail() : String.valueOf(last.getId()));
+        }
+        return response.body(page);
+    }
+
     @PutMapping("/role")
     public EmployeeDTO changeRole(@Valid @RequestBody UpdateRoleRequest body) {
         return employeeService.updateRole(body);
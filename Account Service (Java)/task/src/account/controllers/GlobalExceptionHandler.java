@@ -1,6 +1,7 @@
 package account.controllers;
 
 import account.exceptions.EmployeeNotFoundException;
+import account.exceptions.PasswordHashingRejectedException;
 import account.exceptions.RoleNotFoundException;
 import account.responses.HttpErrorResponse;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,6 +9,8 @@ import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -50,6 +53,24 @@ public class GlobalExceptionHandler {
     }
 
 
+    @ExceptionHandler(PasswordHashingRejectedException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ResponseEntity<HttpErrorResponse> handlePasswordHashingRejectedException(HttpServletRequest req, PasswordHashingRejectedException e) {
+        String requestURI = req.getRequestURI();
+        HttpErrorResponse body = HttpErrorResponse.serviceUnavailable(e.getMessage(), requestURI);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(body);
+    }
+
+
+    /* Another request changed the same row since it was read, e.g. a failed login of a user being unlocked */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ResponseEntity<HttpErrorResponse> handleOptimisticLockingFailureException(HttpServletRequest req, OptimisticLockingFailureException e) {
+        String requestURI = req.getRequestURI();
+        HttpErrorResponse body = HttpErrorResponse.conflict("The user was changed concurrently, try again!", requestURI);
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+    }
+
 
     //<YOUR_GithubPersonalAccessToken_HERE
     @ExceptionHandler(RuntimeException.class)
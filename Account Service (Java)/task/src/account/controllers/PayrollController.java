@@ -1,20 +1,24 @@
 package account.controllers;
 
-import account.dtos.PayrollDTO;
+import account.models.Payroll;
 import account.requestBodies.PayrollRequest;
 import account.responses.PayrollResponse;
 import account.services.PayrollService;
+import account.services.PayrollUploadService;
 import account.utils.Regex;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Pattern;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -23,32 +27,44 @@ import java.util.List;
 public class PayrollController {
 
     private final PayrollService payrollService;
+    private final PayrollUploadService payrollUploadService;
 
     @Autowired
-    public PayrollController(PayrollService payrollService) {
+    public PayrollController(PayrollService payrollService, PayrollUploadService payrollUploadService) {
         this.payrollService = payrollService;
+        this.payrollUploadService = payrollUploadService;
     }
 
-    @GetMapping("/empl/payment")
+    @GetMapping(value = "/empl/payment", produces = MediaType.APPLICATION_JSON_VALUE)
     @ResponseStatus(HttpStatus.OK)
-    public List<PayrollDTO> getEmployeePayrolls(@AuthenticationPrincipal UserDetails user) {
+    public byte[] getEmployeePayrolls(
+            @AuthenticationPrincipal UserDetails user,
+            @RequestParam(required = false) @Pattern(regexp = Regex.PAYROLL_PERIOD) String from,
+            @RequestParam(required = false) @Pattern(regexp = Regex.PAYROLL_PERIOD) String to,
+            @RequestParam(defaultValue = "false") boolean pretty
+    ) {
         if (user == null) {
             throw new UsernameNotFoundException("You are not authenticated");
         }
 
-        return payrollService.getPayroll(user.getUsername());
+        byte[] json = payrollService.getPayrollJson(user.getUsername(),
+                from == null ? null : Payroll.parsePeriod(from),
+                to == null ? null : Payroll.parsePeriod(to));
+        return pretty ? payrollService.prettyPrint(json) : json;
     }
 
-    @GetMapping(value = "/empl/payment", params = "period")
+    @GetMapping(value = "/empl/payment", params = "period", produces = MediaType.APPLICATION_JSON_VALUE)
     @ResponseStatus(HttpStatus.OK)
-    public PayrollDTO getEmployeePayrollOfPeriod(
+    public byte[] getEmployeePayrollOfPeriod(
             @AuthenticationPrincipal UserDetails user,
-            @RequestParam @Pattern(regexp = Regex.PAYROLL_PERIOD) String period
+            @RequestParam @Pattern(regexp = Regex.PAYROLL_PERIOD) String period,
+            @RequestParam(defaultValue = "false") boolean pretty
     ) {
         if (user == null) {
             throw new UsernameNotFoundException("You are not authenticated");
         }
-        return payrollService.getPayroll(user.getUsername(), period);
+        byte[] json = payrollService.getPayrollJson(user.getUsername(), Payroll.parsePeriod(period));
+        return pretty ? payrollService.prettyPrint(json) : json;
     }
 
     @PostMapping("/acct/payments")
@@ -58,6 +74,14 @@ public class PayrollController {
         return new PayrollResponse("Added successfully!");
     }
 
+    /* Same as above for uploads too large to bind at once, the body is parsed while it is being received */
+    @PostMapping(value = "/acct/payments", params = "stream=true")
+    @ResponseStatus(HttpStatus.OK)
+    public PayrollResponse uploadEmployeePayrollStream(InputStream body) throws IOException {
+        payrollUploadService.savePayrolls(body);
+        return new PayrollResponse("Added successfully!");
+    }
+
     @PutMapping("/acct/payments")
     public PayrollResponse updateEmployeePayroll(@Valid @RequestBody PayrollRequest body) {
         payrollService.updatePayroll(body);
@@ -1,27 +1,104 @@
 package account.controllers;
 
 import account.models.SecurityEvent;
+import account.requestBodies.SecurityEventFilter;
 import account.services.SecurityEventService;
-import jakarta.servlet.http.HttpServletRequest;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
+/**
+ * Security events are listed in id order. Without {@code limit} every matching event is streamed as a
+ * JSON array (or NDJSON when {@code application/x-ndjson} is accepted), reading one keyset page at a time.
+ * With {@code limit} a single page is returned and {@code X-Next-Cursor} carries the id to pass as
+ * {@code after} for the next page.
+ */
 @RestController
+@Validated
 public class SecurityController {
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final int MAX_PAGE_SIZE = 1000;
 
     private final SecurityEventService service;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter ndjsonWriter;
 
     @Autowired
-    public SecurityController(SecurityEventService service) {
+    public SecurityController(SecurityEventService service, ObjectMapper objectMapper) {
         this.service = service;
+        this.objectMapper = objectMapper;
+        this.ndjsonWriter = objectMapper.writerFor(SecurityEvent.class)
+                .without(SerializationFeature.INDENT_OUTPUT)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
     }
 
     @GetMapping("/api/security/events")
-    public List<SecurityEvent> getSecurityEvents(HttpServletRequest request) {
-        return  service.getSecurityEvents();
+    public ResponseEntity<StreamingResponseBody> getSecurityEvents(
+            SecurityEventFilter filter,
+            @RequestParam(defaultValue = "0") long after
+    ) {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+                generator.writeStartArray();
+                service.forEachSecurityEvent(filter, after, event -> {
+                    try {
+                        generator.writeObject(event);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    @GetMapping(value = "/api/security/events", produces = NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamSecurityEvents(
+            SecurityEventFilter filter,
+            @RequestParam(defaultValue = "0") long after
+    ) {
+        StreamingResponseBody body = out -> service.forEachSecurityEvent(filter, after, event -> writeLine(out, event));
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON_VALUE)).body(body);
+    }
+
+    @GetMapping(value = "/api/security/events", params = "limit")
+    public ResponseEntity<List<SecurityEvent>> getSecurityEventsPage(
+            SecurityEventFilter filter,
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam @Min(1) @Max(MAX_PAGE_SIZE) int limit
+    ) {
+        List<SecurityEvent> page = service.getSecurityEvents(filter, after, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == limit) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.get(page.size() - 1).getId()));
+        }
+        return response.body(page);
+    }
+
+    private void writeLine(OutputStream out, SecurityEvent event) {
+        try {
+            ndjsonWriter.writeValue(out, event);
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
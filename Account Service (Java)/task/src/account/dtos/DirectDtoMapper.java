@@ -0,0 +1,42 @@
+package account.dtos;
+
+import account.models.Employee;
+import account.models.Payroll;
+import account.responses.SignupResponse;
+import account.utils.PayrollFormatter;
+import account.utils.RoleUtil;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/* Plain getter and constructor calls */
+@Component
+@ConditionalOnProperty(name = "account.dto-mapper", havingValue = "direct", matchIfMissing = true)
+public class DirectDtoMapper implements DtoMapper {
+    @Override
+    public PayrollDTO toPayrollDTO(Payroll payroll) {
+        Employee employee = payroll.getEmployee();
+        return new PayrollDTO(employee.getName(), employee.getLastname(),
+                PayrollFormatter.formatPeriod(payroll.getPeriod()), PayrollFormatter.formatSalary(payroll.getSalary()));
+    }
+
+    @Override
+    public EmployeeDTO toEmployeeDTO(Employee employee) {
+        return new EmployeeDTO(id(employee), employee.getName(), employee.getLastname(), employee.getEmail(), roles(employee));
+    }
+
+    @Override
+    public SignupResponse toSignupResponse(Employee employee) {
+        return new SignupResponse(id(employee), employee.getName(), employee.getLastname(), employee.getEmail(), roles(employee));
+    }
+
+    private static long id(Employee employee) {
+        return employee.getId() == null ? 0 : employee.getId();
+    }
+
+    private static List<String> roles(Employee employee) {
+        return new ArrayList<>(RoleUtil.names(employee.getRoleMask()));
+    }
+}
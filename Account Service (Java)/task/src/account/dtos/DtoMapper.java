@@ -0,0 +1,25 @@
+package account.dtos;
+
+import account.models.Employee;
+import account.models.Payroll;
+import account.repositories.PayrollView;
+import account.responses.SignupResponse;
+import account.utils.PayrollFormatter;
+
+/**
+ * Maps entities to the objects returned by the API. {@code account.dto-mapper} selects the
+ * implementation: {@code direct} (default) or {@code model-mapper}.
+ */
+public interface DtoMapper {
+    PayrollDTO toPayrollDTO(Payroll payroll);
+
+    /* The view is already flat, there is nothing to gain from reflection */
+    default PayrollDTO toPayrollDTO(PayrollView view) {
+        return new PayrollDTO(view.name(), view.lastname(),
+                PayrollFormatter.formatPeriod(view.period()), PayrollFormatter.formatSalary(view.salary()));
+    }
+
+    EmployeeDTO toEmployeeDTO(Employee employee);
+
+    SignupResponse toSignupResponse(Employee employee);
+}
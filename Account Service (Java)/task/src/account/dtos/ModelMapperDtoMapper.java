@@ -0,0 +1,36 @@
+package account.dtos;
+
+import account.models.Employee;
+import account.models.Payroll;
+import account.responses.SignupResponse;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/* The reflective mapping configured in ApplicationConfig, kept to compare against DirectDtoMapper */
+@Component
+@ConditionalOnProperty(name = "account.dto-mapper", havingValue = "model-mapper")
+public class ModelMapperDtoMapper implements DtoMapper {
+    private final ModelMapper modelMapper;
+
+    @Autowired
+    public ModelMapperDtoMapper(ModelMapper modelMapper) {
+        this.modelMapper = modelMapper;
+    }
+
+    @Override
+    public PayrollDTO toPayrollDTO(Payroll payroll) {
+        return modelMapper.map(payroll, PayrollDTO.class);
+    }
+
+    @Override
+    public EmployeeDTO toEmployeeDTO(Employee employee) {
+        return modelMapper.map(employee, EmployeeDTO.class);
+    }
+
+    @Override
+    public SignupResponse toSignupResponse(Employee employee) {
+        return modelMapper.map(employee, SignupResponse.class);
+    }
+}
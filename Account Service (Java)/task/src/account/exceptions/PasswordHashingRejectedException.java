@@ -0,0 +1,10 @@
+package account.exceptions;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/* Thrown when the password hashing pool is saturated, answered with 503 instead of queueing the request */
+public class PasswordHashingRejectedException extends AuthenticationServiceException {
+    public PasswordHashingRejectedException() {
+        super("Too many password checks in progress, try again later!");
+    }
+}
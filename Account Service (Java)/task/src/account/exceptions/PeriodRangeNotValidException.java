@@ -0,0 +1,7 @@
+package account.exceptions;
+
+public class PeriodRangeNotValidException extends RuntimeException {
+    public PeriodRangeNotValidException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,195 @@
+package account.migrations;
+
+import account.models.Role;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Brings an existing {@code service_db} up to date before Hibernate starts, so that the
+ * schema update Hibernate runs afterwards only ever has to add things.
+ * <p>
+ * Every step checks the current state of the database first and is safe to run on every start,
+ * on a fresh database as well as on one written by an older version.
+ */
+@Slf4j
+@Component
+public class DatabaseMigration implements InitializingBean {
+    /* must match allocationSize of the @SequenceGenerator on each entity */
+    static final int ID_ALLOCATION_SIZE = 50;
+    private static final Set<Integer> CHARACTER_TYPES = Set.of(Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR, Types.NVARCHAR);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DatabaseMigration(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        createIdSequence("employees");
+        createIdSequence("login_information");
+        createIdSequence("payrolls");
+        createIdSequence("information_security_events");
+        convertPayrollPeriods();
+        convertRolesToMask();
+        lowerCaseEmails();
+        addLoginInformationVersion();
+        createPayrollStaging();
+    }
+
+    /*
+     * Ids used to come from IDENTITY columns. The pooled optimizer hands out the block ending at the
+     * value it reads from the sequence, so the sequence has to restart a full block above the largest id.
+     */
+    private void createIdSequence(String table) {
+        String sequence = table + "_seq";
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS %s START WITH 1 INCREMENT BY %d".formatted(sequence, ID_ALLOCATION_SIZE));
+        if (!tableExists(table)) {
+            return;
+        }
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        if (maxId != null) {
+            jdbcTemplate.execute("ALTER SEQUENCE %s RESTART WITH %d".formatted(sequence, maxId + ID_ALLOCATION_SIZE));
+            log.info("Restarted {} above existing id {}", sequence, maxId);
+        }
+    }
+
+    /*
+     * Periods used to be stored as MM-yyyy strings. They are now the month count kept by PeriodConverter,
+     * with at most one payroll per employee and period. H2 commits every DDL statement on its own, so rows
+     * that cannot be converted stop the start before anything is changed, and the old column is only dropped
+     * once the new one is filled and constrained. Dropping it is what marks the step as done; a start that
+     * stopped right after that finishes the rename.
+     */
+    private void convertPayrollPeriods() {
+        if (!tableExists("payrolls")) {
+            return;
+        }
+        if (isCharacterColumn("payrolls", "period")) {
+            requireConvertiblePeriods();
+            jdbcTemplate.execute("ALTER TABLE payrolls ADD COLUMN IF NOT EXISTS period_months INTEGER");
+            int converted = jdbcTemplate.update("""
+                    UPDATE payrolls SET period_months =
+                        CAST(SUBSTRING(period, 4, 4) AS INTEGER) * 12 + CAST(SUBSTRING(period, 1, 2) AS INTEGER) - 1""");
+            jdbcTemplate.execute("ALTER TABLE payrolls ALTER COLUMN period_months SET NOT NULL");
+            jdbcTemplate.execute("ALTER TABLE payrolls ADD CONSTRAINT IF NOT EXISTS uk_payrolls_employee_period UNIQUE (employee_id, period_months)");
+            jdbcTemplate.execute("ALTER TABLE payrolls DROP COLUMN period");
+            log.info("Converted the period of {} payrolls to months", converted);
+        }
+        if (columnExists("payrolls", "period_months")) {
+            jdbcTemplate.execute("ALTER TABLE payrolls ALTER COLUMN period_months RENAME TO period");
+        }
+    }
+
+    /* Guessing a month or picking one of two salaries would change payslips, so these are left to an operator */
+    private void requireConvertiblePeriods() {
+        List<Long> malformed = jdbcTemplate.queryForList("""
+                SELECT id FROM payrolls WHERE period IS NULL OR NOT REGEXP_LIKE(period, '^(0[1-9]|1[0-2])-[0-9]{4}$')
+                ORDER BY id FETCH FIRST 10 ROWS ONLY""", Long.class);
+        if (!malformed.isEmpty()) {
+            throw new IllegalStateException("Cannot convert payroll periods, these payrolls have no valid MM-yyyy period: " + malformed);
+        }
+        List<String> duplicated = jdbcTemplate.queryForList("""
+                SELECT employee_id || ' ' || period FROM payrolls GROUP BY employee_id, period HAVING COUNT(*) > 1
+                ORDER BY employee_id, period FETCH FIRST 10 ROWS ONLY""", String.class);
+        if (!duplicated.isEmpty()) {
+            throw new IllegalStateException("Cannot convert payroll periods, these employees have several payrolls for one period: " + duplicated);
+        }
+    }
+
+    /*
+     * Roles used to be rows of employee_roles. They are now the Role bit mask in employees.roles; names that
+     * are not a Role are dropped. The table is dropped last, so an interrupted run is repeated on the next start.
+     */
+    private void convertRolesToMask() {
+        if (!tableExists("employee_roles") || !tableExists("employees")) {
+            return;
+        }
+        StringBuilder bits = new StringBuilder("CASE r.role");
+        for (Role role : Role.values()) {
+            bits.append(" WHEN '%s' THEN %d".formatted(role.name(), role.bit()));
+        }
+        bits.append(" ELSE 0 END");
+        jdbcTemplate.execute("ALTER TABLE employees ADD COLUMN IF NOT EXISTS roles INTEGER DEFAULT 0 NOT NULL");
+        int converted = jdbcTemplate.update("""
+                UPDATE employees e SET roles =
+                    (SELECT COALESCE(SUM(DISTINCT %s), 0) FROM employee_roles r WHERE r.employee_id = e.id)""".formatted(bits));
+        jdbcTemplate.execute("DROP TABLE employee_roles");
+        log.info("Converted the roles of {} employees to bit masks", converted);
+    }
+
+    /*
+     * Emails used to be stored as typed and matched with upper(email) = upper(?), which scans the table. They
+     * are now lower-cased on write and compared as they are, so that lookups use the unique index. Signup has
+     * always rejected emails that differ only in case, so this cannot create duplicates.
+     */
+    private void lowerCaseEmails() {
+        if (!tableExists("employees") || !isCharacterColumn("employees", "email")) {
+            return;
+        }
+        int converted = jdbcTemplate.update("UPDATE employees SET email = LOWER(email) WHERE email <> LOWER(email)");
+        if (converted > 0) {
+            log.info("Lower-cased the email of {} employees", converted);
+        }
+    }
+
+    /* Rows written before LoginInformation became versioned start at version 0 */
+    private void addLoginInformationVersion() {
+        if (tableExists("login_information")) {
+            jdbcTemplate.execute("ALTER TABLE login_information ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL");
+        }
+    }
+
+    /* Scratch table for streamed payroll uploads, rows left behind by an interrupted upload are useless after a restart */
+    private void createPayrollStaging() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS payroll_staging");
+        jdbcTemplate.execute("""
+                CREATE TABLE payroll_staging (
+                    upload_id VARCHAR(36) NOT NULL,
+                    employee_id BIGINT NOT NULL,
+                    period INTEGER NOT NULL,
+                    salary BIGINT NOT NULL
+                )""");
+        jdbcTemplate.execute("CREATE INDEX idx_payroll_staging_upload ON payroll_staging (upload_id, employee_id, period)");
+    }
+
+    private boolean tableExists(String table) {
+        Boolean exists = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            try (ResultSet tables = connection.getMetaData().getTables(connection.getCatalog(), connection.getSchema(),
+                    table.toUpperCase(Locale.ROOT), new String[]{"TABLE", "BASE TABLE"})) {
+                return tables.next();
+            }
+        });
+        return Boolean.TRUE.equals(exists);
+    }
+
+    private boolean columnExists(String table, String column) {
+        Boolean exists = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            try (ResultSet columns = connection.getMetaData().getColumns(connection.getCatalog(), connection.getSchema(),
+                    table.toUpperCase(Locale.ROOT), column.toUpperCase(Locale.ROOT))) {
+                return columns.next();
+            }
+        });
+        return Boolean.TRUE.equals(exists);
+    }
+
+    private boolean isCharacterColumn(String table, String column) {
+        Boolean character = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            try (ResultSet columns = connection.getMetaData().getColumns(connection.getCatalog(), connection.getSchema(),
+                    table.toUpperCase(Locale.ROOT), column.toUpperCase(Locale.ROOT))) {
+                return columns.next() && CHARACTER_TYPES.contains(columns.getInt("DATA_TYPE"));
+            }
+        });
+        return Boolean.TRUE.equals(character);
+    }
+}
@@ -0,0 +1,15 @@
+package account.migrations;
+
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MigrationConfiguration {
+
+    /* Hibernate must not touch the schema before DatabaseMigration is done with it */
+    @Bean
+    static EntityManagerFactoryDependsOnPostProcessor entityManagerFactoryDependsOnDatabaseMigration() {
+        return new EntityManagerFactoryDependsOnPostProcessor(DatabaseMigration.class);
+    }
+}
@@ -1,6 +1,7 @@
 package account.models;
 
 import account.utils.Regex;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
@@ -12,7 +13,10 @@ import lombok.NoArgsConstructor;
 import org.hibernate.validator.constraints.Length;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 @Entity
 @NoArgsConstructor
@@ -20,10 +24,14 @@ import java.util.List;
 @Builder
 @Data
 @JsonInclude(JsonInclude.Include.NON_NULL)
-@Table(name = "employees")
+@Table(name = "employees", indexes = {
+        @Index(name = "idx_employees_roles_id", columnList = "roles, id"),
+        @Index(name = "idx_employees_roles_email", columnList = "roles, email")
+})
 public class Employee {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employees_seq")
+    @SequenceGenerator(name = "employees_seq", sequenceName = "employees_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -45,14 +53,10 @@ public class Employee {
     @Column(name = "password")
     private String password;
 
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(
-            name = "employee_roles",
-            joinColumns = @JoinColumn(name = "employee_id")
-    )
-    @OrderBy(value = "ASC")
-    @Column(name = "role")
-    private List<String> roles;
+    /* Bit mask of Role constants, see getRoles() for a set view */
+    @JsonIgnore
+    @Column(name = "roles", nullable = false)
+    private int roleMask;
 
     @OneToMany(mappedBy = "employee", cascade = CascadeType.ALL)
     private List<Payroll> payrolls;
@@ -61,16 +65,25 @@ public class Employee {
     @JoinColumn(name = "login_information_id")
     private LoginInformation loginInformation;
 
-    public Employee(String name, String lastname, String email, String password, String role) {
-        this(name, lastname, email, password, new ArrayList<>(List.of(role)));
-    }
-
-    public Employee(String name, String lastname, String email, String password, List<String> roles) {
+    public Employee(String name, String lastname, String email, String password, Role... roles) {
         this.name = name;
         this.lastname = lastname;
         this.email = email;
         this.password = password;
-        this.roles = roles;
+        this.roleMask = Role.toMask(List.of(roles));
+    }
+
+    /* A read-only snapshot of the roles, change them with addRole and removeRole */
+    public Set<Role> getRoles() {
+        return Collections.unmodifiableSet(Role.fromMask(roleMask));
+    }
+
+    public void setRoles(Collection<Role> roles) {
+        this.roleMask = Role.toMask(roles);
+    }
+
+    public boolean hasRole(Role role) {
+        return role.isIn(roleMask);
     }
 
     public List<Payroll> getPayrolls() {
@@ -98,15 +111,12 @@ public class Employee {
         }
     }
 
-    public void addRole(String role) {
-        if (this.roles == null) {
-            this.roles = new ArrayList<>();
-        }
-        this.roles.add(role);
+    public void addRole(Role role) {
+        this.roleMask |= role.bit();
     }
 
-    public void removeRole(String newRole) {
-        this.roles.remove(newRole);
+    public void removeRole(Role role) {
+        this.roleMask &= ~role.bit();
     }
 
     public LoginInformation getLoginInformation() {
@@ -115,4 +125,11 @@ public class Employee {
         }
         return loginInformation;
     }
+
+    public static class EmployeeBuilder {
+        public EmployeeBuilder roles(Role... roles) {
+            this.roleMask = Role.toMask(List.of(roles));
+            return this;
+        }
+    }
 }
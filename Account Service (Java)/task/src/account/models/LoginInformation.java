@@ -15,7 +15,8 @@ import lombok.NoArgsConstructor;
 public class LoginInformation {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "login_information_seq")
+    @SequenceGenerator(name = "login_information_seq", sequenceName = "login_information_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -28,6 +29,11 @@ public class LoginInformation {
     @Column(name = "login_attempts")
     private int loginAttempts;
 
+    /* Also bumped by the bulk updates in LoginInformationRepository, so a stale entity cannot overwrite them */
+    @Version
+    @Column(name = "version")
+    private long version;
+
     {
         isLocked = false;
         isEnabled = true;
@@ -1,10 +1,8 @@
 package account.models;
 
-import account.utils.Regex;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Pattern;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -18,18 +16,22 @@ import java.time.format.DateTimeFormatter;
 @AllArgsConstructor
 @Data
 @Builder
-@Table(name = "payrolls")
+@Table(name = "payrolls", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_payrolls_employee_period", columnNames = {"employee_id", "period"})
+})
 public class Payroll {
     public static final DateTimeFormatter PERIOD_FORMATTER = DateTimeFormatter.ofPattern("MM-yyyy");
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payrolls_seq")
+    @SequenceGenerator(name = "payrolls_seq", sequenceName = "payrolls_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
     @NotNull
+    @Convert(converter = PeriodConverter.class)
     @Column(name = "period")
-    private String period;
+    private YearMonth period;
 
     @NotNull
     @Min(value = 0, message = "salary cannot be less than 0")
@@ -47,11 +49,15 @@ public class Payroll {
      * @param period YearMonth
      * @param salary Long
      */
-    public Payroll(String period, Long salary) {
+    public Payroll(YearMonth period, Long salary) {
         this.period = period;
         this.salary = salary;
     }
 
+    /* Parses a period in the {@code MM-yyyy} format used by the API */
+    public static YearMonth parsePeriod(String period) {
+        return YearMonth.parse(period, PERIOD_FORMATTER);
+    }
 
     public void setEmployee(Employee employee) {
         this.employee = employee;
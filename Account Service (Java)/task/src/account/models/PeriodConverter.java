@@ -0,0 +1,28 @@
+package account.models;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.time.YearMonth;
+
+/**
+ * Stores a payroll period as the number of months since year 0 ({@code year * 12 + month - 1}),
+ * which sorts and compares like the period itself.
+ */
+@Converter
+public class PeriodConverter implements AttributeConverter<YearMonth, Integer> {
+
+    @Override
+    public Integer convertToDatabaseColumn(YearMonth period) {
+        return period == null ? null : toMonths(period);
+    }
+
+    @Override
+    public YearMonth convertToEntityAttribute(Integer months) {
+        return months == null ? null : YearMonth.of(Math.floorDiv(months, 12), Math.floorMod(months, 12) + 1);
+    }
+
+    public static int toMonths(YearMonth period) {
+        return period.getYear() * 12 + period.getMonthValue() - 1;
+    }
+}
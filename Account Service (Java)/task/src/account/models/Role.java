@@ -0,0 +1,65 @@
+package account.models;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The fixed set of roles, stored together as a bit mask in {@code employees.roles}.
+ * <p>
+ * Bits are given explicitly because they are persisted, so constants can be reordered or added without
+ * changing stored masks. Constants are declared alphabetically, which is the order roles have always been
+ * listed in.
+ */
+public enum Role {
+    ACCOUNTANT(1 << 2),
+    ADMINISTRATOR(1),
+    AUDITOR(1 << 3),
+    USER(1 << 1);
+
+    /* Every mask is below this, so arrays indexed by mask cover all combinations */
+    public static final int MASK_LIMIT = 1 << values().length;
+
+    private static final Map<String, Role> BY_NAME = Arrays.stream(values())
+            .collect(Collectors.toUnmodifiableMap(Role::name, Function.identity()));
+
+    private final int bit;
+
+    Role(int bit) {
+        this.bit = bit;
+    }
+
+    public int bit() {
+        return bit;
+    }
+
+    public boolean isIn(int mask) {
+        return (mask & bit) != 0;
+    }
+
+    /* The role with this name, or null when there is none */
+    public static Role parse(String name) {
+        return name == null ? null : BY_NAME.get(name);
+    }
+
+    public static int toMask(Collection<Role> roles) {
+        int mask = 0;
+        for (Role role : roles) {
+            mask |= role.bit;
+        }
+        return mask;
+    }
+
+    public static EnumSet<Role> fromMask(int mask) {
+        EnumSet<Role> roles = EnumSet.noneOf(Role.class);
+        for (Role role : values()) {
+            if (role.isIn(mask)) {
+                roles.add(role);
+            }
+        }
+        return roles;
+    }
+}
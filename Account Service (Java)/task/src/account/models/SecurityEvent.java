@@ -13,11 +13,16 @@ import java.time.LocalDate;
 @AllArgsConstructor
 @Data
 @Builder
-@Table(name = "information_security_events")
+@Table(name = "information_security_events", indexes = {
+        @Index(name = "idx_security_events_action", columnList = "action, id"),
+        @Index(name = "idx_security_events_subject", columnList = "subject, id"),
+        @Index(name = "idx_security_events_date", columnList = "date, id")
+})
 public class SecurityEvent {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "information_security_events_seq")
+    @SequenceGenerator(name = "information_security_events_seq", sequenceName = "information_security_events_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -0,0 +1,13 @@
+package account.repositories;
+
+import account.models.Employee;
+import account.models.Role;
+import account.requestBodies.EmployeeSort;
+
+import java.util.List;
+
+/* Keyset pages of employees with their login information, one query per page */
+public interface EmployeeQueryRepository {
+    /* Employees after the cursor in the given order, only those holding role unless it is null; a null cursor starts at the beginning */
+    List<Employee> findPage(Role role, EmployeeSort sort, String after, int limit);
+}
@@ -0,0 +1,59 @@
+package account.repositories;
+
+import account.models.Employee;
+import account.models.Role;
+import account.requestBodies.EmployeeSort;
+import account.utils.RoleUtil;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class EmployeeQueryRepositoryImpl implements EmployeeQueryRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /*
+     * Walks the index of the sort key from the cursor and stops after limit rows. A role filter walks the
+     * (roles, key) index once for every mask that contains the role, each walk stopping after limit rows, and
+     * the page is the first limit rows of their union. That reads only employees holding the role however rare
+     * it is, where testing the mask of every row walked reads hundreds of rows per match for a rare role.
+     * Ordering a walk by roles as well, though it is fixed, is what lets H2 read it in index order and stop
+     * early, and the union is the first table so that employees is joined to it row by row.
+     */
+    @Override
+    public List<Employee> findPage(Role role, EmployeeSort sort, String after, int limit) {
+        String key = sort == EmployeeSort.EMAIL ? "email" : "id";
+        List<Integer> masks = role == null ? List.of() : RoleUtil.masksWith(role);
+        StringBuilder jpql = new StringBuilder("SELECT e FROM ");
+        if (role != null) {
+            List<String> walks = new ArrayList<>();
+            for (int i = 0; i < masks.size(); i++) {
+                walks.add("(SELECT r.id id FROM Employee r WHERE r.roleMask = :mask%d%s ORDER BY r.roleMask, r.%s LIMIT :limit)"
+                        .formatted(i, after == null ? "" : " AND r.%s > :after".formatted(key), key));
+            }
+            jpql.append("(%s) w JOIN Employee e ON e.id = w.id".formatted(String.join(" UNION ALL ", walks)));
+        } else {
+            jpql.append("Employee e");
+        }
+        jpql.append(" LEFT JOIN FETCH e.loginInformation");
+        if (role == null && after != null) {
+            jpql.append(" WHERE e.%s > :after".formatted(key));
+        }
+        jpql.append(" ORDER BY e.%s".formatted(key));
+
+        TypedQuery<Employee> query = entityManager.createQuery(jpql.toString(), Employee.class);
+        for (int i = 0; i < masks.size(); i++) {
+            query.setParameter("mask" + i, masks.get(i));
+        }
+        if (role != null) {
+            query.setParameter("limit", limit);
+        }
+        if (after != null) {
+            query.setParameter("after", sort == EmployeeSort.EMAIL ? after : Long.valueOf(after));
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+}
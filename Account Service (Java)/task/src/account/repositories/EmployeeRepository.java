@@ -1,12 +1,34 @@
 package account.repositories;
 
 import account.models.Employee;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
-public interface EmployeeRepository extends CrudRepository<Employee, Long> {
-    boolean existsByEmailIgnoreCase(String email);
+public interface EmployeeRepository extends CrudRepository<Employee, Long>, EmployeeQueryRepository {
+    /* Emails are stored lower-cased, so these compare the column itself and can use its unique index */
+    boolean existsByEmail(String email);
 
-    Optional<Employee> findByEmailIgnoreCase(String email);
+    Optional<Employee> findByEmail(String email);
+
+    default boolean existsByEmailIgnoreCase(String email) {
+        return existsByEmail(email.toLowerCase(Locale.ROOT));
+    }
+
+    default Optional<Employee> findByEmailIgnoreCase(String email) {
+        return findByEmail(email.toLowerCase(Locale.ROOT));
+    }
+
+    /* Loads every employee whose email matches one of the given lower-cased emails, with login information */
+    @Query("SELECT e FROM Employee e LEFT JOIN FETCH e.loginInformation WHERE e.email IN :emails")
+    List<Employee> findAllByLowerCaseEmailIn(@Param("emails") Collection<String> emails);
+
+    /* Every employee in id order with login information, in a single query */
+    @Query("SELECT e FROM Employee e LEFT JOIN FETCH e.loginInformation ORDER BY e.id")
+    List<Employee> findAllWithLoginInformation();
 }
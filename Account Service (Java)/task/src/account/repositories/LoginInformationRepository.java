@@ -1,8 +1,45 @@
 package account.repositories;
 
 import account.models.LoginInformation;
-import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.ListCrudRepository;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
+import java.util.Optional;
+
+/*
+ * The writes below are single statements that never read the row into Java first, so concurrent writers
+ * cannot lose each other's updates, and they bump the version so that stale entities fail instead.
+ * They must be called within a transaction.
+ */
 public interface LoginInformationRepository extends ListCrudRepository<LoginInformation, Long> {
+
+    /* Lower-cased email and failed login attempts of every employee that has any */
+    @Query("SELECT e.email AS email, l.loginAttempts AS loginAttempts FROM Employee e JOIN e.loginInformation l WHERE l.loginAttempts > 0")
+    List<EmailLoginAttempts> findAllFailedLoginAttempts();
+
+    /* Adds to the failed attempts and returns the new total, empty when no employee has the given lower-cased email */
+    @Query(nativeQuery = true, value = """
+            SELECT login_attempts FROM FINAL TABLE (
+                UPDATE login_information SET login_attempts = login_attempts + :delta, version = version + 1
+                WHERE id = (SELECT login_information_id FROM employees WHERE email = :email))""")
+    Optional<Integer> incrementLoginAttempts(@Param("email") String email, @Param("delta") int delta);
+
+    /* Returns the number of updated rows, 0 when the employee has no failed attempts or does not exist */
+    @Modifying
+    @Query("UPDATE VERSIONED LoginInformation l SET l.loginAttempts = 0 WHERE l.loginAttempts > 0 AND l.id = (SELECT e.loginInformation.id FROM Employee e WHERE e.email = :email)")
+    int resetLoginAttempts(@Param("email") String email);
+
+    /* Returns the number of updated rows, 0 when no employee has the given lower-cased email */
+    @Modifying
+    @Query("UPDATE VERSIONED LoginInformation l SET l.isLocked = true WHERE l.id = (SELECT e.loginInformation.id FROM Employee e WHERE e.email = :email)")
+    int lock(@Param("email") String email);
+
+    interface EmailLoginAttempts {
+        String getEmail();
+
+        int getLoginAttempts();
+    }
 }
@@ -2,15 +2,45 @@ package account.repositories;
 
 import account.models.Employee;
 import account.models.Payroll;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
+import java.time.YearMonth;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface PayrollRepository extends CrudRepository<Payroll, Long> {
 
-    Optional<Payroll> findByEmployeeAndPeriod(Employee employee, String period);
-    Optional<Payroll> findByEmployeeEmailAndPeriod(String email, String period);
+    Optional<Payroll> findByEmployeeAndPeriod(Employee employee, YearMonth period);
+    Optional<Payroll> findByEmployeeEmailAndPeriod(String email, YearMonth period);
     List<Payroll> findByEmployee(Employee employee);
     List<Payroll> findByEmployeeEmail(String email);
+
+    /* Newest first, walks the (employee_id, period) unique index backwards */
+    @Query("""
+            SELECT new account.repositories.PayrollView(e.name, e.lastname, p.period, p.salary)
+            FROM Payroll p JOIN p.employee e
+            WHERE e.email = :email AND p.period BETWEEN :from AND :to
+            ORDER BY p.period DESC""")
+    List<PayrollView> findViewsByEmployeeEmail(@Param("email") String email, @Param("from") YearMonth from, @Param("to") YearMonth to);
+
+    @Query("""
+            SELECT new account.repositories.PayrollView(e.name, e.lastname, p.period, p.salary)
+            FROM Payroll p JOIN p.employee e
+            WHERE e.email = :email AND p.period = :period""")
+    Optional<PayrollView> findViewByEmployeeEmailAndPeriod(@Param("email") String email, @Param("period") YearMonth period);
+
+    /* Stored (employee, period) pairs among the given employees and periods, seeks the (employee_id, period) index */
+    @Query("""
+            SELECT p.employee.id AS employeeId, p.period AS period FROM Payroll p
+            WHERE p.employee.id IN :employeeIds AND p.period IN :periods""")
+    List<EmployeePeriod> findPeriods(@Param("employeeIds") Collection<Long> employeeIds, @Param("periods") Collection<YearMonth> periods);
+
+    interface EmployeePeriod {
+        Long getEmployeeId();
+
+        YearMonth getPeriod();
+    }
 }
@@ -0,0 +1,7 @@
+package account.repositories;
+
+import java.time.YearMonth;
+
+/* Read model of a payroll with its employee's name, selected straight into this record without loading entities */
+public record PayrollView(String name, String lastname, YearMonth period, Long salary) {
+}
@@ -0,0 +1,11 @@
+package account.repositories;
+
+import account.models.SecurityEvent;
+import account.requestBodies.SecurityEventFilter;
+
+import java.util.List;
+
+/* Keyset queries over security events, ordered by id and always starting after a known id */
+public interface SecurityEventQueryRepository {
+    List<SecurityEvent> findPage(SecurityEventFilter filter, long afterId, int limit);
+}
@@ -0,0 +1,60 @@
+package account.repositories;
+
+import account.models.SecurityEvent;
+import account.requestBodies.SecurityEventFilter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+
+class SecurityEventQueryRepositoryImpl implements SecurityEventQueryRepository {
+    private static final RowMapper<SecurityEvent> ROW_MAPPER = (rs, rowNum) -> {
+        Date date = rs.getDate("date");
+        return new SecurityEvent(
+                rs.getLong("id"),
+                date == null ? null : date.toLocalDate(),
+                rs.getString("action"),
+                rs.getString("subject"),
+                rs.getString("object"),
+                rs.getString("path"));
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    SecurityEventQueryRepositoryImpl(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public List<SecurityEvent> findPage(SecurityEventFilter filter, long afterId, int limit) {
+        List<Object> args = new ArrayList<>();
+        String sql = select(filter, afterId, args) + " FETCH FIRST ? ROWS ONLY";
+        args.add(limit);
+        return jdbcTemplate.query(sql, ROW_MAPPER, args.toArray());
+    }
+
+    private static String select(SecurityEventFilter filter, long afterId, List<Object> args) {
+        StringBuilder sql = new StringBuilder("SELECT id, date, action, subject, object, path FROM information_security_events WHERE id > ?");
+        args.add(afterId);
+        if (filter.action() != null) {
+            sql.append(" AND action = ?");
+            args.add(filter.action());
+        }
+        if (filter.subject() != null) {
+            sql.append(" AND subject = ?");
+            args.add(filter.subject());
+        }
+        if (filter.from() != null) {
+            sql.append(" AND date >= ?");
+            args.add(Date.valueOf(filter.from()));
+        }
+        if (filter.to() != null) {
+            sql.append(" AND date <= ?");
+            args.add(Date.valueOf(filter.to()));
+        }
+        return sql.append(" ORDER BY id").toString();
+    }
+}
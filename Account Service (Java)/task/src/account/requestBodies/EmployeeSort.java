@@ -0,0 +1,7 @@
+package account.requestBodies;
+
+/* Orders of the admin user listing; both keys are unique, so the last value of a page is the cursor of the next */
+public enum EmployeeSort {
+    ID,
+    EMAIL
+}
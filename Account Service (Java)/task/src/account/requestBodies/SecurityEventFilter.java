@@ -0,0 +1,15 @@
+package account.requestBodies;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/* Optional criteria for listing security events, null fields match everything and the date range is inclusive */
+public record SecurityEventFilter(
+        String action,
+        String subject,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+) {
+    public static final SecurityEventFilter NONE = new SecurityEventFilter(null, null, null, null);
+}
@@ -20,4 +20,16 @@ public record HttpErrorResponse(int status, String error, String message, String
     public static HttpErrorResponse notFound(String message, String path) {
         return new HttpErrorResponse(NOT_FOUND.value(), NOT_FOUND.getReasonPhrase(), message, path, LocalTime.now());
     }
+
+    public static HttpErrorResponse conflict(String message, String path) {
+        return new HttpErrorResponse(CONFLICT.value(), CONFLICT.getReasonPhrase(), message, path, LocalTime.now());
+    }
+
+    public static HttpErrorResponse serviceUnavailable(String message, String path) {
+        return new HttpErrorResponse(SERVICE_UNAVAILABLE.value(), SERVICE_UNAVAILABLE.getReasonPhrase(), message, path, LocalTime.now());
+    }
+
+    public static HttpErrorResponse tooManyRequests(String message, String path) {
+        return new HttpErrorResponse(TOO_MANY_REQUESTS.value(), TOO_MANY_REQUESTS.getReasonPhrase(), message, path, LocalTime.now());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package account.responses;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record TokenResponse(
+        @JsonProperty("access_token") String token,
+        @JsonProperty("token_type") String type,
+        @JsonProperty("expires_in") long expiresIn
+) {
+}
@@ -1,25 +1,27 @@
 package account.services;
 
+import account.dtos.DtoMapper;
 import account.dtos.EmployeeDTO;
 import account.exceptions.*;
 import account.models.Employee;
+import account.models.Role;
 import account.repositories.EmployeeRepository;
+import account.repositories.LoginInformationRepository;
+import account.requestBodies.EmployeeSort;
 import account.requestBodies.UpdateRoleRequest;
 import account.requestBodies.UserLockOperation;
 import account.responses.PasswordChangedResponse;
 import account.responses.RemoveEmployeeResponse;
 import account.responses.SignupResponse;
 import account.responses.UserLockResponse;
-import account.utils.RoleUtil;
 import jakarta.transaction.Transactional;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class EmployeeService {
@@ -27,40 +29,50 @@ public class EmployeeService {
     private final PasswordEncoder encoder;
     private final BreachedPasswordService breachedPasswordService;
     private final SecurityEventService securityEventService;
-    private final ModelMapper modelMapper;
-    private final RoleUtil roleUtil;
-
+    private final DtoMapper dtoMapper;
+    private final VerifiedCredentialCache credentialCache;
+    private final TokenService tokenService;
+    private final UserDetailsServiceImpl userDetailsService;
+    private final PayrollResponseCache payrollResponseCache;
+    private final LoginAttemptCounter loginAttemptCounter;
+    private final LoginInformationRepository loginInformationRepository;
 
     @Autowired
-    public EmployeeService(EmployeeRepository repo, PasswordEncoder encoder, BreachedPasswordService breachedPasswordService, SecurityEventService securityEventService, ModelMapper modaMapper, RoleUtil roleUtil) {
+    public EmployeeService(EmployeeRepository repo, PasswordEncoder encoder, BreachedPasswordService breachedPasswordService, SecurityEventService securityEventService, DtoMapper dtoMapper, VerifiedCredentialCache credentialCache, TokenService tokenService, UserDetailsServiceImpl userDetailsService, PayrollResponseCache payrollResponseCache, LoginAttemptCounter loginAttemptCounter, LoginInformationRepository loginInformationRepository) {
         this.employeeRepository = repo;
         this.encoder = encoder;
         this.breachedPasswordService = breachedPasswordService;
         this.securityEventService = securityEventService;
-        this.modelMapper = modaMapper;
-        this.roleUtil = roleUtil;
+        this.dtoMapper = dtoMapper;
+        this.credentialCache = credentialCache;
+        this.tokenService = tokenService;
+        this.userDetailsService = userDetailsService;
+        this.payrollResponseCache = payrollResponseCache;
+        this.loginAttemptCounter = loginAttemptCounter;
+        this.loginInformationRepository = loginInformationRepository;
     }
 
     public Optional<Employee> findByEmail(String email) {
         return employeeRepository.findByEmailIgnoreCase(email);
     }
 
-
-    public boolean validateEmails(List<String> emails) {
-        for (String email : emails) {
-            boolean exists = employeeRepository.existsByEmailIgnoreCase(email);
-            if (!exists) {
-                return false;
-            }
+    /* Resolves all emails with a single query, keyed by lower-cased email; unknown emails are absent from the map */
+    public Map<String, Employee> findAllByEmail(Collection<String> emails) {
+        Set<String> keys = emails.stream().map(email -> email.toLowerCase(Locale.ROOT)).collect(Collectors.toSet());
+        if (keys.isEmpty()) {
+            return Map.of();
         }
-        return true;
+        return employeeRepository.findAllByLowerCaseEmailIn(keys).stream()
+                .collect(Collectors.toMap(Employee::getEmail, Function.identity(), (first, second) -> first));
     }
 
     public SignupResponse register(Employee employee) {
+        // lookups compare the stored email as it is, see EmployeeRepository
+        employee.setEmail(employee.getEmail().toLowerCase(Locale.ROOT));
         if (employeeRepository.count() == 0) {
-            employee.setRoles(List.of("ADMINISTRATOR"));
+            employee.setRoles(List.of(Role.ADMINISTRATOR));
         } else {
-            employee.setRoles(List.of("USER"));
+            employee.setRoles(List.of(Role.USER));
         }
 
         if (employeeRepository.existsByEmailIgnoreCase(employee.getEmail())) {
@@ -68,7 +80,7 @@ public class EmployeeService {
         }
 
         Employee saved = saveAndUpdateEmployee(employee);
-        return modelMapper.map(saved, SignupResponse.class);
+        return dtoMapper.toSignupResponse(saved);
     }
 
     public PasswordChangedResponse updatePassword(String email, String password) {
@@ -78,6 +90,7 @@ public class EmployeeService {
         }
         employee.setPassword(password);
         saveAndUpdateEmployee(employee);
+        revokeAuthentication(email);
         return new PasswordChangedResponse(email);
     }
 
@@ -98,35 +111,46 @@ public class EmployeeService {
     }
 
     public List<EmployeeDTO> getAllEmployee() {
-        List<EmployeeDTO> list = new ArrayList<>();
-        employeeRepository.findAll().forEach(employee -> {
-            EmployeeDTO dto = modelMapper.map(employee, EmployeeDTO.class);
-            list.add(dto);
-        });
-        return list;
+        return employeeRepository.findAllWithLoginInformation().stream().map(dtoMapper::toEmployeeDTO).toList();
+    }
+
+    /* One page of employees after the cursor, which is the id or email of the last employee of the previous page */
+    public List<EmployeeDTO> getEmployees(String role, EmployeeSort sort, String after, int limit) {
+        Role holding = Role.parse(role);
+        if (role != null && holding == null) {
+            throw new RoleNotFoundException();
+        }
+        if (after != null && sort == EmployeeSort.ID && !after.matches("\\d{1,18}")) {
+            throw new IllegalArgumentException("Cursor must be an employee id!");
+        }
+        return employeeRepository.findPage(holding, sort, after, limit).stream().map(dtoMapper::toEmployeeDTO).toList();
     }
 
     @Transactional
     public RemoveEmployeeResponse removeEmployee(String email) {
         Employee employee = employeeRepository.findByEmailIgnoreCase(email)
                 .orElseThrow(EmployeeNotFoundException::new);
-        if (employee.getRoles().contains("ADMINISTRATOR")) {
+        if (employee.hasRole(Role.ADMINISTRATOR)) {
             throw new AdminDeletionException();
         }
         employeeRepository.delete(employee);
+        revokeAuthentication(email);
+        // a new account with the same email must not see the payrolls deleted with this one
+        payrollResponseCache.evict(List.of(email));
         return new RemoveEmployeeResponse(employee.getEmail());
     }
 
     @Transactional
     public EmployeeDTO updateRole(UpdateRoleRequest requestBody) {
         final String email = requestBody.getUser();
-        final String role = requestBody.getRole();
+        final Role role = Role.parse(requestBody.getRole());
 
-        if (!roleUtil.isValidRole(role)) {
+        if (role == null) {
             throw new RoleNotFoundException();
         }
         Employee employee = employeeRepository.findByEmailIgnoreCase(email)
                 .orElseThrow(EmployeeNotFoundException::new);
+        revokeAuthentication(email);
 
         return switch (requestBody.getOperation()) {
             case "GRANT" -> grantRoleToEmployee(role, employee);
@@ -136,38 +160,38 @@ public class EmployeeService {
     }
 
     @Transactional
-    private EmployeeDTO grantRoleToEmployee(String role, Employee employee) {
+    private EmployeeDTO grantRoleToEmployee(Role role, Employee employee) {
         // cannot combine administrative and business roles
-        if (employee.getRoles().contains("ADMINISTRATOR")) {
+        if (employee.hasRole(Role.ADMINISTRATOR)) {
             throw new RuntimeException("The user cannot combine administrative and business roles!");
         }
         // cannot grant the same role twice
-        if (employee.getRoles().contains(role)) {
+        if (employee.hasRole(role)) {
             throw new RuntimeException("The user does not have a role!");
         }
 
-        employee.getRoles().add(role);
+        employee.addRole(role);
         Employee saved = employeeRepository.save(employee);
-        return modelMapper.map(saved, EmployeeDTO.class);
+        return dtoMapper.toEmployeeDTO(saved);
     }
 
     @Transactional
-    private EmployeeDTO removeRoleFromEmployee(String role, Employee employee) {
+    private EmployeeDTO removeRoleFromEmployee(Role role, Employee employee) {
         // cannot remove ADMINISTRATOR role
-        if (role.equals("ADMINISTRATOR")) {
+        if (role == Role.ADMINISTRATOR) {
             throw new AdminDeletionException();
         }
         // cannot remove the last role
-        if (employee.getRoles().size() == 1) {
+        if (Integer.bitCount(employee.getRoleMask()) == 1) {
             throw new RuntimeException("The user must have at least one role!");
         }
         // cannot remove role that does not exist
-        if (!employee.getRoles().contains(role)) {
+        if (!employee.hasRole(role)) {
             throw new RuntimeException("The user does not have a role!");
         }
-        employee.getRoles().remove(role);
+        employee.removeRole(role);
         Employee saved = employeeRepository.save(employee);
-        return modelMapper.map(saved, EmployeeDTO.class);
+        return dtoMapper.toEmployeeDTO(saved);
     }
 
     @Transactional
@@ -184,35 +208,57 @@ public class EmployeeService {
     }
 
     private void lockUser(Employee employee) {
-        if (employee.getRoles().contains("ADMINISTRATOR")) {
-            throw new RuntimeException("Can't lock the ADMINISTRATOR!");
-        }
+        requireLockable(employee);
         employee.getLoginInformation().setLocked(true);
         simpleUpdate(employee);
+        revokeAuthentication(employee.getEmail());
     }
 
     private void unlockUser(Employee employee) {
+        // otherwise the next mistyped password would count towards the previous lock
+        loginAttemptCounter.reset(employee.getEmail());
+        employee.getLoginInformation().resetLoginAttempts();
         employee.getLoginInformation().setLocked(false);
         simpleUpdate(employee);
+        revokeAuthentication(employee.getEmail());
     }
 
+    /*
+     * The login paths write with single statements rather than by saving the entity, which would fail on the
+     * version bumped by a LoginAttemptCounter flush of the same row
+     */
     @Transactional
     public void resetLoginAttempts(String principal) {
-        Employee employee = findByEmail(principal).orElseThrow(EmployeeNotFoundException::new);
-        if (employee.getLoginInformation().getLoginAttempts() > 0) {
-            employee.getLoginInformation().resetLoginAttempts();
-            simpleUpdate(employee);
-        }
+        loginAttemptCounter.reset(principal);
+        loginInformationRepository.resetLoginAttempts(principal.toLowerCase(Locale.ROOT));
     }
 
+    /* Called once when LoginAttemptCounter sees the limit reached; false for unknown users */
     @Transactional
-    public void updateLoginAttempts(String principal) {
-        Employee employee = findByEmail(principal).orElseThrow(EmployeeNotFoundException::new);
-        employee.getLoginInformation().increaseLoginAttempts();
-        if (employee.getLoginInformation().getLoginAttempts() < 5) {
-            simpleUpdate(employee);
-        } else {
-            lockUser(employee);
+    public boolean lockAfterFailedLogins(String principal) {
+        Optional<Employee> found = findByEmail(principal);
+        if (found.isEmpty()) {
+            return false;
+        }
+        Employee employee = found.get();
+        requireLockable(employee);
+        // stores the failures that reached the limit; before the row is locked, which the background flush may be waiting for
+        loginAttemptCounter.flush(principal);
+        loginInformationRepository.lock(employee.getEmail());
+        revokeAuthentication(employee.getEmail());
+        return true;
+    }
+
+    private static void requireLockable(Employee employee) {
+        if (employee.hasRole(Role.ADMINISTRATOR)) {
+            throw new RuntimeException("Can't lock the ADMINISTRATOR!");
         }
     }
+
+    /* Forgets cached users, credentials and outstanding tokens so that the next request re-authenticates against the database */
+    private void revokeAuthentication(String email) {
+        userDetailsService.evict(email);
+        credentialCache.invalidate(email);
+        tokenService.revoke(email);
+    }
 }
@@ -0,0 +1,203 @@
+package account.services;
+
+import account.repositories.LoginInformationRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Counts failed logins in memory so that a bad password costs no synchronous database write.
+ * <p>
+ * Counters are updated with {@link ConcurrentHashMap#merge}, which only locks the hash bin of the
+ * username, so concurrent failures hardly contend and each one sees a distinct count; exactly one of them
+ * sees the count reach {@code max-attempts}. The failures counted since the last flush are added to
+ * {@code login_information} by a background thread every {@code flush-interval}, with an atomic increment
+ * that returns the stored total. Adding rather than overwriting means a flush cannot undo a reset or lock
+ * written meanwhile, and the returned total is the authoritative count; counters of usernames that match
+ * no employee are dropped at that point. The counters of all employees with failed attempts are loaded on
+ * start, so this class holds the current count of every known user. Flushes are serialized with a
+ * {@link ReentrantLock} because the write happens while holding it, which a monitor would turn into a
+ * pinned virtual thread.
+ */
+@Slf4j
+@Service
+public class LoginAttemptCounter implements SmartLifecycle {
+    private final LoginInformationRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long flushIntervalNanos;
+
+    private final Map<String, Integer> counters = new ConcurrentHashMap<>();
+    /* failures counted since the last flush */
+    private final Map<String, Integer> pending = new ConcurrentHashMap<>();
+    private final Lock flushLock = new ReentrantLock();
+
+    private volatile boolean running;
+    private volatile Thread worker;
+
+    @Autowired
+    public LoginAttemptCounter(
+            LoginInformationRepository repository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${account.security.login-attempts.max:5}") int maxAttempts,
+            @Value("${account.security.login-attempts.flush-interval:1s}") Duration flushInterval
+    ) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+        this.flushIntervalNanos = flushInterval.toNanos();
+
+        Gauge.builder("security.login-attempts.pending", pending, Map::size)
+                .description("Failed login counters waiting to be written")
+                .register(meterRegistry);
+    }
+
+    /* Returns the number of failed attempts including this one */
+    public int recordFailure(String username) {
+        String key = key(username);
+        int attempts = counters.merge(key, 1, Integer::sum);
+        pending.merge(key, 1, Integer::sum);
+        return attempts;
+    }
+
+    /* True for the one failure that reached the limit, later failures do not lock the user again */
+    public boolean isLockingAttempt(int attempts) {
+        return attempts == maxAttempts;
+    }
+
+    public int getFailures(String username) {
+        return counters.getOrDefault(key(username), 0);
+    }
+
+    /*
+     * Forgets the failures of the user and returns how many there were; the caller resets the stored count.
+     * Waits for a running flush, which could otherwise add failures from before the reset after it.
+     */
+    public int reset(String username) {
+        String key = key(username);
+        flushLock.lock();
+        try {
+            pending.remove(key);
+            Integer attempts = counters.replace(key, 0);
+            return attempts == null ? 0 : attempts;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /* Adds the failures counted since the last flush on the calling thread */
+    public void flush() {
+        write(pending.keySet());
+    }
+
+    /* Adds the failures of one user counted since the last flush, within the caller's transaction if there is one */
+    public void flush(String username) {
+        write(List.of(key(username)));
+    }
+
+    private void write(Collection<String> pendingKeys) {
+        flushLock.lock();
+        try {
+            List<String> keys = new ArrayList<>(pendingKeys);
+            if (keys.isEmpty()) {
+                return;
+            }
+            Map<String, Integer> written = new HashMap<>();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    for (String key : keys) {
+                        Integer delta = pending.remove(key);
+                        if (delta == null) {
+                            continue;
+                        }
+                        written.put(key, delta);
+                        Optional<Integer> stored = repository.incrementLoginAttempts(key, delta);
+                        if (stored.isPresent()) {
+                            counters.merge(key, stored.get(), Math::max);
+                        } else {
+                            // not an employee; kept if it failed again meanwhile
+                            counters.computeIfPresent(key, (k, attempts) -> pending.containsKey(k) ? attempts : null);
+                        }
+                    }
+                });
+            } catch (RuntimeException e) {
+                // rolled back, the next flush adds them again
+                written.forEach((key, delta) -> pending.merge(key, delta, Integer::sum));
+                throw e;
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public void start() {
+        repository.findAllFailedLoginAttempts()
+                .forEach(row -> counters.put(row.getEmail(), row.getLoginAttempts()));
+        running = true;
+        worker = new Thread(this::run, "login-attempt-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = worker;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /* Stop after the web server so that failures of in-flight requests are still written */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void run() {
+        while (running) {
+            LockSupport.parkNanos(this, flushIntervalNanos);
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                log.error("Cannot write failed login attempts", e);
+            }
+        }
+    }
+
+    private static String key(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+}
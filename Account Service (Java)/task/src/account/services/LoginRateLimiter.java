@@ -0,0 +1,134 @@
+package account.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets of failed logins per client IP and per username, checked before a password is verified.
+ * <p>
+ * Only failures take tokens, so users who know their password are never limited, while a client that keeps
+ * guessing is rejected without costing a BCrypt verification. Each bucket is a single {@link AtomicLong}
+ * holding the time at which it will be full again (the generic cell rate algorithm), updated with a CAS loop.
+ * A bucket left alone for {@code refill-period} is full, so idle buckets are simply evicted from a bounded
+ * cache.
+ */
+@Service
+public class LoginRateLimiter {
+    public static final String IP_CACHE_NAME = "loginRateLimit.ip";
+    public static final String USERNAME_CACHE_NAME = "loginRateLimit.username";
+
+    private final boolean enabled;
+    private final Buckets ipBuckets;
+    private final Buckets usernameBuckets;
+    private final Counter rejectedCounter;
+
+    @Autowired
+    public LoginRateLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${account.security.rate-limit.enabled:true}") boolean enabled,
+            @Value("${account.security.rate-limit.ip.capacity:50}") int ipCapacity,
+            @Value("${account.security.rate-limit.username.capacity:10}") int usernameCapacity,
+            @Value("${account.security.rate-limit.refill-period:1m}") Duration refillPeriod,
+            @Value("${account.security.rate-limit.maximum-size:100000}") long maximumSize
+    ) {
+        this(meterRegistry, enabled, ipCapacity, usernameCapacity, refillPeriod, maximumSize, Clock.systemUTC());
+    }
+
+    LoginRateLimiter(MeterRegistry meterRegistry, boolean enabled, int ipCapacity, int usernameCapacity,
+                     Duration refillPeriod, long maximumSize, Clock clock) {
+        this.enabled = enabled;
+        this.ipBuckets = new Buckets(meterRegistry, IP_CACHE_NAME, ipCapacity, refillPeriod, maximumSize, clock);
+        this.usernameBuckets = new Buckets(meterRegistry, USERNAME_CACHE_NAME, usernameCapacity, refillPeriod, maximumSize, clock);
+        this.rejectedCounter = Counter.builder("security.login.rate-limited")
+                .description("Login attempts rejected before the password was verified")
+                .register(meterRegistry);
+    }
+
+    /* False when either bucket is empty; the attempt must then be rejected without verifying the password */
+    public boolean tryAcquire(String ip, String username) {
+        if (!enabled || (ipBuckets.isAvailable(ip) && usernameBuckets.isAvailable(key(username)))) {
+            return true;
+        }
+        rejectedCounter.increment();
+        return false;
+    }
+
+    /* Takes a token from both buckets; true for the one failure that emptied either of them */
+    public boolean recordFailure(String ip, String username) {
+        if (!enabled) {
+            return false;
+        }
+        boolean ipExhausted = ipBuckets.take(ip);
+        boolean usernameExhausted = usernameBuckets.take(key(username));
+        return ipExhausted || usernameExhausted;
+    }
+
+    /* Time until the next attempt from this client or for this username is allowed */
+    public Duration retryAfter(String ip, String username) {
+        long millis = Math.max(ipBuckets.retryAfterMillis(ip), usernameBuckets.retryAfterMillis(key(username)));
+        return Duration.ofMillis(millis);
+    }
+
+    public void clear() {
+        ipBuckets.cache.invalidateAll();
+        usernameBuckets.cache.invalidateAll();
+    }
+
+    private static String key(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Buckets {
+        private final Cache<String, AtomicLong> cache;
+        private final long intervalMillis;
+        private final long toleranceMillis;
+        private final Clock clock;
+
+        Buckets(MeterRegistry meterRegistry, String name, int capacity, Duration refillPeriod, long maximumSize, Clock clock) {
+            this.cache = Caffeine.newBuilder()
+                    .maximumSize(maximumSize)
+                    .expireAfterAccess(refillPeriod)
+                    .recordStats()
+                    .build();
+            this.intervalMillis = Math.max(1, refillPeriod.toMillis() / capacity);
+            this.toleranceMillis = intervalMillis * (capacity - 1);
+            this.clock = clock;
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        }
+
+        boolean isAvailable(String key) {
+            AtomicLong bucket = cache.getIfPresent(key);
+            return bucket == null || bucket.get() - clock.millis() <= toleranceMillis;
+        }
+
+        boolean take(String key) {
+            AtomicLong bucket = cache.get(key, k -> new AtomicLong());
+            long now = clock.millis();
+            long current;
+            long full;
+            long next;
+            do {
+                current = bucket.get();
+                full = Math.max(current, now);
+                next = full + intervalMillis;
+            } while (!bucket.compareAndSet(current, next));
+            return full - now <= toleranceMillis && next - now > toleranceMillis;
+        }
+
+        long retryAfterMillis(String key) {
+            AtomicLong bucket = cache.getIfPresent(key);
+            return bucket == null ? 0 : Math.max(0, bucket.get() - clock.millis() - toleranceMillis);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package account.services;
+
+import account.utils.AfterCommit;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Serialized {@code GET /api/empl/payment} responses per employee, bounded by total size and age.
+ * <p>
+ * Writers {@link #evict(Collection)} the employees they touched once their transaction commits. A read
+ * that started before an eviction is not cached, so a response loaded from the old rows cannot outlive
+ * the eviction that should have removed it.
+ */
+@Service
+public class PayrollResponseCache {
+    public static final String CACHE_NAME = "payrolls";
+
+    /* A list of payrolls between from and to, or the payroll of a single period when period is set */
+    public record Key(String email, YearMonth period, YearMonth from, YearMonth to) {
+        public static Key list(String email, YearMonth from, YearMonth to) {
+            return new Key(normalize(email), null, from, to);
+        }
+
+        public static Key period(String email, YearMonth period) {
+            return new Key(normalize(email), period, null, null);
+        }
+    }
+
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    private final boolean enabled;
+    private final Cache<Key, byte[]> cache;
+    private final AtomicLong evictions = new AtomicLong();
+
+    @Autowired
+    public PayrollResponseCache(
+            MeterRegistry meterRegistry,
+            @Value("${account.payroll.cache.enabled:true}") boolean enabled,
+            @Value("${account.payroll.cache.maximum-size:64MB}") DataSize maximumSize,
+            @Value("${account.payroll.cache.ttl:10m}") Duration ttl
+    ) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumSize.toBytes())
+                .weigher((Key key, byte[] response) -> ENTRY_OVERHEAD_BYTES + response.length)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public byte[] get(Key key, Supplier<byte[]> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        byte[] cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long stamp = evictions.get();
+        byte[] loaded = loader.get();
+        // evict bumps the counter before removing keys, so either it removes this entry or the check fails
+        cache.asMap().compute(key, (k, current) -> evictions.get() == stamp ? loaded : current);
+        return loaded;
+    }
+
+    /* Drops every cached response of the employees, after the current transaction commits if there is one */
+    public void evict(Collection<String> emails) {
+        Set<String> keys = emails.stream().map(PayrollResponseCache::normalize).collect(Collectors.toSet());
+        AfterCommit.run(() -> evictNow(keys));
+    }
+
+    public void evictAll() {
+        evictions.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private void evictNow(Set<String> emails) {
+        evictions.incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> emails.contains(key.email()));
+    }
+
+    private static String normalize(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,87 +1,135 @@
 package account.services;
 
 
+import account.dtos.DtoMapper;
 import account.dtos.PayrollDTO;
 import account.exceptions.DuplicateEmployeePeriodException;
 import account.exceptions.EmployeeEmailNotValidException;
 import account.exceptions.PayrollRecordNotFound;
+import account.exceptions.PeriodRangeNotValidException;
 import account.models.Employee;
 import account.models.Payroll;
 import account.repositories.PayrollRepository;
+import account.repositories.PayrollView;
 import account.requestBodies.PayrollRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import jakarta.transaction.Transactional;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.io.IOException;
+import java.time.YearMonth;
+import java.util.*;
 
 @Service
 public class PayrollService {
+    private static final YearMonth FIRST_PERIOD = YearMonth.of(0, 1);
+    private static final YearMonth LAST_PERIOD = YearMonth.of(9999, 12);
 
     private final EmployeeService employeeService;
 
     private final PayrollRepository payrollRepository;
 
-    private final ModelMapper modelMapper;
+    private final DtoMapper dtoMapper;
+
+    private final ObjectWriter compactWriter;
+
+    private final ObjectWriter prettyWriter;
+
+    private final ObjectMapper objectMapper;
+
+    private final PayrollResponseCache responseCache;
 
     @Autowired
-    public PayrollService(EmployeeService employeeService, PayrollRepository payrollRepository, ModelMapper modelMapper) {
+    public PayrollService(EmployeeService employeeService, PayrollRepository payrollRepository, DtoMapper dtoMapper, ObjectMapper objectMapper, PayrollResponseCache responseCache) {
         this.employeeService = employeeService;
         this.payrollRepository = payrollRepository;
-        this.modelMapper = modelMapper;
+        this.dtoMapper = dtoMapper;
+        this.objectMapper = objectMapper;
+        this.compactWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        this.prettyWriter = objectMapper.writer().with(SerializationFeature.INDENT_OUTPUT);
+        this.responseCache = responseCache;
+    }
+
+    /* Same as getPayroll, serialized without indentation and read through the response cache */
+    public byte[] getPayrollJson(String email, YearMonth from, YearMonth to) {
+        return responseCache.get(PayrollResponseCache.Key.list(email, from, to), () -> toJson(getPayroll(email, from, to)));
+    }
+
+    public byte[] getPayrollJson(String email, YearMonth period) {
+        return responseCache.get(PayrollResponseCache.Key.period(email, period), () -> toJson(getPayroll(email, period)));
     }
 
     public List<PayrollDTO> getPayroll(String email) {
-        return payrollRepository.findByEmployeeEmail(email).stream()
-                .map(payroll -> modelMapper.map(payroll, PayrollDTO.class))
+        return getPayroll(email, null, null);
+    }
+
+    /* Payrolls of the employee between from and to inclusive, newest first, either bound may be null */
+    public List<PayrollDTO> getPayroll(String email, YearMonth from, YearMonth to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new PeriodRangeNotValidException("Period from must not be after to");
+        }
+        return payrollRepository.findViewsByEmployeeEmail(email,
+                        from == null ? FIRST_PERIOD : from,
+                        to == null ? LAST_PERIOD : to).stream()
+                .map(dtoMapper::toPayrollDTO)
                 .toList();
     }
 
-    public PayrollDTO getPayroll(String email, String period) {
-        Payroll payroll = payrollRepository.findByEmployeeEmailAndPeriod(email, period)
+    public PayrollDTO getPayroll(String email, YearMonth period) {
+        PayrollView payroll = payrollRepository.findViewByEmployeeEmailAndPeriod(email, period)
                 .orElseThrow(() -> new PayrollRecordNotFound("Cannot find payroll for %s at %s".formatted(email, period)));
 
-        return modelMapper.map(payroll, PayrollDTO.class);
+        return dtoMapper.toPayrollDTO(payroll);
     }
 
+    /**
+     * Saves the uploaded payrolls all at once. Referenced employees are resolved with one query and
+     * duplicates are checked per (employee, period), both within the upload and against stored payrolls.
+     */
     @Transactional
     public List<Payroll> savePayrolls(List<PayrollRequest> bodies) {
-        Set<String> periodSet = new HashSet<>();
-        Set<String> emailSet = new HashSet<>();
-        List<Payroll> pendingPayrolls = new ArrayList<>();
-
-        bodies.forEach(payroll -> {
-            periodSet.add(payroll.getPeriod());
-            emailSet.add(payroll.getEmployeeEmail());
-        });
-        List<String> emails = emailSet.stream().toList();
-
-        if (periodSet.size() != bodies.size()) {
-            throw new DuplicateEmployeePeriodException("Duplicated period");
-        }
-
-        if (!employeeService.validateEmails(emails)) {
-            throw new EmployeeEmailNotValidException("Invalid employee email");
-        }
-
-        Employee employee = null;
+        Set<String> emails = new HashSet<>();
+        bodies.forEach(body -> emails.add(body.getEmployeeEmail()));
+        Map<String, Employee> employees = employeeService.findAllByEmail(emails);
 
+        Set<EmployeePeriod> periods = new HashSet<>();
+        List<Payroll> pendingPayrolls = new ArrayList<>(bodies.size());
         for (PayrollRequest body : bodies) {
-            if (employee == null || employee.getEmail().equals(body.getEmployeeEmail())) {
-                employee = employeeService.findByEmail(body.getEmployeeEmail())
-                        .orElseThrow(() -> new EmployeeEmailNotValidException("Employee not record"));
+            Employee employee = employees.get(body.getEmployeeEmail().toLowerCase(Locale.ROOT));
+            if (employee == null) {
+                throw new EmployeeEmailNotValidException("Invalid employee email");
+            }
+            YearMonth period = Payroll.parsePeriod(body.getPeriod());
+            if (!periods.add(new EmployeePeriod(employee.getId(), period))) {
+                throw new DuplicateEmployeePeriodException("Duplicated period");
             }
+            // the builder does not touch employee.payrolls, which would load the whole collection
+            pendingPayrolls.add(Payroll.builder()
+                    .period(period)
+                    .salary(body.getSalary())
+                    .employee(employee)
+                    .build());
+        }
 
-            Payroll payroll = new Payroll(body.getPeriod(), body.getSalary());
-            payroll.setEmployee(employee);
-            pendingPayrolls.add(payroll);
+        Set<Long> employeeIds = new HashSet<>();
+        Set<YearMonth> uploadedPeriods = new HashSet<>();
+        periods.forEach(pair -> {
+            employeeIds.add(pair.employeeId());
+            uploadedPeriods.add(pair.period());
+        });
+        // only the uploaded periods, not the whole history of every employee
+        for (PayrollRepository.EmployeePeriod stored : payrollRepository.findPeriods(employeeIds, uploadedPeriods)) {
+            if (periods.contains(new EmployeePeriod(stored.getEmployeeId(), stored.getPeriod()))) {
+                throw new DuplicateEmployeePeriodException("Duplicated period");
+            }
         }
 
         Iterable<Payroll> saved = payrollRepository.saveAll(pendingPayrolls);
+        responseCache.evict(employees.keySet());
 
         List<Payroll> savedList = new ArrayList<>();
         saved.forEach(savedList::add);
@@ -91,10 +139,32 @@ public class PayrollService {
 
     @Transactional
     public Payroll updatePayroll(PayrollRequest body) {
-        Payroll payroll = payrollRepository.findByEmployeeEmailAndPeriod(body.getEmployeeEmail(), body.getPeriod())
+        Payroll payroll = payrollRepository.findByEmployeeEmailAndPeriod(body.getEmployeeEmail(), Payroll.parsePeriod(body.getPeriod()))
                 .orElseThrow(() -> new PayrollRecordNotFound("Previous payroll record not record"));
 
         payroll.setSalary(body.getSalary());
-        return payrollRepository.save(payroll);
+        Payroll saved = payrollRepository.save(payroll);
+        responseCache.evict(List.of(body.getEmployeeEmail()));
+        return saved;
+    }
+
+    /* For clients that ask for indented output, the cache only keeps compact responses */
+    public byte[] prettyPrint(byte[] json) {
+        try {
+            return prettyWriter.writeValueAsBytes(objectMapper.readTree(json));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot indent payrolls", e);
+        }
+    }
+
+    private byte[] toJson(Object response) {
+        try {
+            return compactWriter.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize payrolls", e);
+        }
+    }
+
+    private record EmployeePeriod(Long employeeId, YearMonth period) {
     }
 }
@@ -0,0 +1,163 @@
+package account.services;
+
+import account.exceptions.DuplicateEmployeePeriodException;
+import account.exceptions.EmployeeEmailNotValidException;
+import account.models.Employee;
+import account.models.Payroll;
+import account.models.PeriodConverter;
+import account.requestBodies.PayrollRequest;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
+/**
+ * Uploads a JSON array of payrolls without holding it in memory.
+ * <p>
+ * The array is parsed one element at a time and written to {@code payroll_staging} in chunks of
+ * {@code chunk-size} rows, each in its own transaction. Only once the whole body has been read are the
+ * staged rows checked for duplicates and copied into {@code payrolls} in a single transaction, so an
+ * upload is still stored completely or not at all.
+ */
+@Service
+public class PayrollUploadService {
+    private static final String STAGE_SQL = "INSERT INTO payroll_staging (upload_id, employee_id, period, salary) VALUES (?, ?, ?, ?)";
+    private static final String DUPLICATES_IN_UPLOAD_SQL = """
+            SELECT COUNT(*) FROM (
+                SELECT employee_id, period FROM payroll_staging WHERE upload_id = ?
+                GROUP BY employee_id, period HAVING COUNT(*) > 1
+            )""";
+    private static final String DUPLICATES_IN_PAYROLLS_SQL = """
+            SELECT COUNT(*) FROM payroll_staging s
+            JOIN payrolls p ON p.employee_id = s.employee_id AND p.period = s.period
+            WHERE s.upload_id = ?""";
+    // each row takes a whole value of the pooled sequence, which keeps it clear of the blocks Hibernate hands out
+    private static final String SWAP_SQL = """
+            INSERT INTO payrolls (id, employee_id, period, salary)
+            SELECT NEXT VALUE FOR payrolls_seq, employee_id, period, salary FROM payroll_staging WHERE upload_id = ?""";
+    private static final String CLEAR_SQL = "DELETE FROM payroll_staging WHERE upload_id = ?";
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader requestReader;
+    private final Validator validator;
+    private final EmployeeService employeeService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PayrollResponseCache responseCache;
+    private final int chunkSize;
+
+    @Autowired
+    public PayrollUploadService(
+            ObjectMapper objectMapper,
+            Validator validator,
+            EmployeeService employeeService,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            PayrollResponseCache responseCache,
+            @Value("${account.payroll.upload.chunk-size:1000}") int chunkSize
+    ) {
+        this.objectMapper = objectMapper;
+        this.requestReader = objectMapper.readerFor(PayrollRequest.class);
+        this.validator = validator;
+        this.employeeService = employeeService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.responseCache = responseCache;
+        this.chunkSize = chunkSize;
+    }
+
+    /* Returns the number of payrolls stored */
+    public long savePayrolls(InputStream body) throws IOException {
+        String uploadId = UUID.randomUUID().toString();
+        Map<String, Long> employeeIds = new HashMap<>();
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Payroll upload must be a JSON array");
+            }
+            long count = 0;
+            List<PayrollRequest> chunk = new ArrayList<>(chunkSize);
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                PayrollRequest request = requestReader.readValue(parser);
+                Set<ConstraintViolation<PayrollRequest>> violations = validator.validate(request);
+                if (!violations.isEmpty()) {
+                    throw new ConstraintViolationException(violations);
+                }
+                chunk.add(request);
+                if (chunk.size() == chunkSize) {
+                    count += stage(uploadId, chunk, employeeIds);
+                    chunk.clear();
+                }
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new IllegalArgumentException("Payroll upload must be a JSON array of payrolls");
+            }
+            count += stage(uploadId, chunk, employeeIds);
+            swap(uploadId);
+            responseCache.evict(employeeIds.keySet());
+            return count;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed payroll upload: " + e.getOriginalMessage());
+        } finally {
+            jdbcTemplate.update(CLEAR_SQL, uploadId);
+        }
+    }
+
+    private int stage(String uploadId, List<PayrollRequest> chunk, Map<String, Long> employeeIds) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        resolveEmployees(chunk, employeeIds);
+        List<Object[]> rows = new ArrayList<>(chunk.size());
+        for (PayrollRequest request : chunk) {
+            Long employeeId = employeeIds.get(request.getEmployeeEmail().toLowerCase(Locale.ROOT));
+            int period = PeriodConverter.toMonths(Payroll.parsePeriod(request.getPeriod()));
+            rows.add(new Object[]{uploadId, employeeId, period, request.getSalary()});
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(STAGE_SQL, rows));
+        return rows.size();
+    }
+
+    /* Looks up the emails of the chunk that have not been seen earlier in the upload */
+    private void resolveEmployees(List<PayrollRequest> chunk, Map<String, Long> employeeIds) {
+        Set<String> unknown = new HashSet<>();
+        for (PayrollRequest request : chunk) {
+            String email = request.getEmployeeEmail().toLowerCase(Locale.ROOT);
+            if (!employeeIds.containsKey(email)) {
+                unknown.add(email);
+            }
+        }
+        Map<String, Employee> found = employeeService.findAllByEmail(unknown);
+        if (found.size() != unknown.size()) {
+            throw new EmployeeEmailNotValidException("Invalid employee email");
+        }
+        found.forEach((email, employee) -> employeeIds.put(email, employee.getId()));
+    }
+
+    private void swap(String uploadId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (count(DUPLICATES_IN_UPLOAD_SQL, uploadId) > 0 || count(DUPLICATES_IN_PAYROLLS_SQL, uploadId) > 0) {
+                throw new DuplicateEmployeePeriodException("Duplicated period");
+            }
+            jdbcTemplate.update(SWAP_SQL, uploadId);
+        });
+    }
+
+    private long count(String sql, String uploadId) {
+        Long count = jdbcTemplate.queryForObject(sql, Long.class, uploadId);
+        return count == null ? 0 : count;
+    }
+}
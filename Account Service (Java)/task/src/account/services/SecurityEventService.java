@@ -2,23 +2,57 @@ package account.services;
 
 import account.models.SecurityEvent;
 import account.repositories.SecurityEventRepository;
+import account.requestBodies.SecurityEventFilter;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 public class SecurityEventService {
+    static final int STREAM_PAGE_SIZE = 500;
+
     private final SecurityEventRepository securityEventRepository;
+    private final SecurityEventWriter securityEventWriter;
 
-    public SecurityEventService(SecurityEventRepository securityEventRepository) {
+    public SecurityEventService(SecurityEventRepository securityEventRepository, SecurityEventWriter securityEventWriter) {
         this.securityEventRepository = securityEventRepository;
+        this.securityEventWriter = securityEventWriter;
     }
 
     public List<SecurityEvent> getSecurityEvents() {
+        flush();
         return securityEventRepository.findAll();
     }
 
+    /* One page of matching events with an id greater than afterId, in id order */
+    public List<SecurityEvent> getSecurityEvents(SecurityEventFilter filter, long afterId, int limit) {
+        flush();
+        return securityEventRepository.findPage(filter, afterId, limit);
+    }
+
+    /*
+     * Feeds matching events to the action one keyset page at a time, so memory use does not depend on the table
+     * size and a slow reader holds a connection only while a page is read, never for the whole download
+     */
+    public void forEachSecurityEvent(SecurityEventFilter filter, long afterId, Consumer<SecurityEvent> action) {
+        flush();
+        List<SecurityEvent> page;
+        do {
+            page = securityEventRepository.findPage(filter, afterId, STREAM_PAGE_SIZE);
+            page.forEach(action);
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == STREAM_PAGE_SIZE);
+    }
+
+    /* Writes events that are still waiting in the queue */
+    public void flush() {
+        securityEventWriter.flush();
+    }
+
     /* A user has been successfully registered */
     public void logCreateUser(String subject, String object, String path) {
         addEvent("CREATE_USER", subject, object, path);
@@ -73,7 +107,7 @@ public class SecurityEventService {
     }
 
     public void addEvent(SecurityEvent event) {
-        securityEventRepository.save(event);
+        securityEventWriter.enqueue(event);
     }
 
 }
@@ -0,0 +1,373 @@
+package account.services;
+
+import account.models.SecurityEvent;
+import account.repositories.SecurityEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Moves security event inserts off the request thread.
+ * <p>
+ * Events are appended to a bounded lock-free queue and a background thread saves them in batches
+ * whenever {@code batch-size} events are waiting or {@code flush-interval} has elapsed. When the queue
+ * is full the {@link OverflowPolicy} decides whether the caller waits, the oldest event is discarded or
+ * the event is appended to a local NDJSON spill file that is replayed on the next flush. A waiting caller
+ * sleeps until the writer frees a slot and writes the event itself after {@code block-timeout}, so a slow
+ * database delays requests by at most that long plus one insert. The file is renamed
+ * before it is replayed and the renamed copy is only deleted once all of its events are stored, so events of
+ * a replay that failed or was cut short by a crash are replayed again first.
+ * The queue is drained when the application context closes, including through the actuator
+ * shutdown endpoint. Flushing and spilling are guarded by {@link ReentrantLock}s rather than monitors, so a
+ * virtual thread waiting for one or doing file I/O under one does not pin its carrier thread.
+ */
+@Slf4j
+@Component
+public class SecurityEventWriter implements SmartLifecycle {
+    public enum OverflowPolicy {BLOCK, DROP_OLDEST, SPILL}
+
+    private final SecurityEventRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectWriter spillWriter;
+    private final ObjectReader spillReader;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy overflowPolicy;
+    private final Path spillFile;
+    private final long blockTimeoutNanos;
+
+    private final Queue<SecurityEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    /* one permit per free slot in the queue, released by poll */
+    private final Semaphore slots;
+    private final Lock flushLock = new ReentrantLock();
+    private final Lock spillLock = new ReentrantLock();
+    private final Timer flushTimer;
+    private final Counter droppedCounter;
+    private final Counter spilledCounter;
+
+    private volatile boolean running;
+    private volatile Thread worker;
+
+    @Autowired
+    public SecurityEventWriter(
+            SecurityEventRepository repository,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${account.security.events.capacity:10000}") int capacity,
+            @Value("${account.security.events.batch-size:100}") int batchSize,
+            @Value("${account.security.events.flush-interval:500ms}") Duration flushInterval,
+            @Value("${account.security.events.overflow-policy:BLOCK}") OverflowPolicy overflowPolicy,
+            @Value("${account.security.events.spill-file:security-events.ndjson}") String spillFile,
+            @Value("${account.security.events.block-timeout:1s}") Duration blockTimeout
+    ) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.spillWriter = objectMapper.writerFor(SecurityEvent.class).without(SerializationFeature.INDENT_OUTPUT);
+        this.spillReader = objectMapper.readerFor(SecurityEvent.class);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.overflowPolicy = overflowPolicy;
+        this.spillFile = Path.of(spillFile);
+        this.blockTimeoutNanos = blockTimeout.toNanos();
+        this.slots = new Semaphore(capacity);
+
+        Gauge.builder("security.events.queue.depth", size, AtomicInteger::get)
+                .description("Security events waiting to be written")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("security.events.flush")
+                .description("Time taken to write one batch of security events")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("security.events.dropped")
+                .description("Security events discarded because the queue was full or the write failed")
+                .register(meterRegistry);
+        this.spilledCounter = Counter.builder("security.events.spilled")
+                .description("Security events written to the spill file because the queue was full")
+                .register(meterRegistry);
+    }
+
+    public void enqueue(SecurityEvent event) {
+        if (!running) {
+            // not started yet or already shut down, nobody would drain the queue
+            persist(List.of(event));
+            return;
+        }
+        if (!slots.tryAcquire()) {
+            switch (overflowPolicy) {
+                case BLOCK -> {
+                    if (!awaitSlot()) {
+                        persist(List.of(event));
+                        return;
+                    }
+                }
+                case DROP_OLDEST -> {
+                    do {
+                        if (!poll(1).isEmpty()) {
+                            droppedCounter.increment();
+                        }
+                    } while (!slots.tryAcquire());
+                }
+                case SPILL -> {
+                    spill(List.of(event));
+                    return;
+                }
+            }
+        }
+        size.incrementAndGet();
+        queue.offer(event);
+        if (!running) {
+            // stop() may have drained the queue between the check above and the offer
+            flush();
+        } else if (size.get() >= batchSize) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    /* Writes everything queued or spilled so far on the calling thread */
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<SecurityEvent> batch;
+            while (!(batch = poll(batchSize)).isEmpty()) {
+                persist(batch);
+            }
+            replaySpillFile();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public int getQueueDepth() {
+        return size.get();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = new Thread(this::run, "security-event-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = worker;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /* Stop after the web server so that in-flight requests can still enqueue their events */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void run() {
+        while (running) {
+            if (size.get() < batchSize) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                log.error("Cannot write security events", e);
+            }
+        }
+    }
+
+    /* Sleeps until poll frees a slot, the worker is woken first in case it is still waiting for the interval */
+    private boolean awaitSlot() {
+        LockSupport.unpark(worker);
+        try {
+            return slots.tryAcquire(blockTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private List<SecurityEvent> poll(int limit) {
+        List<SecurityEvent> batch = new ArrayList<>(limit);
+        SecurityEvent event;
+        while (batch.size() < limit && (event = queue.poll()) != null) {
+            size.decrementAndGet();
+            batch.add(event);
+        }
+        slots.release(batch.size());
+        return batch;
+    }
+
+    private void persist(List<SecurityEvent> batch) {
+        if (!save(batch)) {
+            if (overflowPolicy == OverflowPolicy.SPILL) {
+                spill(batch);
+            } else {
+                droppedCounter.increment(batch.size());
+            }
+        }
+    }
+
+    private boolean save(List<SecurityEvent> batch) {
+        try {
+            flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> repository.saveAll(batch)));
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Cannot write {} security events", batch.size(), e);
+            return false;
+        }
+    }
+
+    private void spill(List<SecurityEvent> events) {
+        spillLock.lock();
+        try (BufferedWriter writer = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (SecurityEvent event : events) {
+                writer.write(spillWriter.writeValueAsString(event));
+                writer.newLine();
+            }
+            spilledCounter.increment(events.size());
+        } catch (IOException e) {
+            log.error("Cannot spill {} security events to {}", events.size(), spillFile, e);
+            droppedCounter.increment(events.size());
+        } finally {
+            spillLock.unlock();
+        }
+    }
+
+    /* Only called under flushLock, which is what keeps two replays from sharing the renamed file */
+    private void replaySpillFile() {
+        Path replaying = spillFile.resolveSibling(spillFile.getFileName() + ".replaying");
+        if (Files.exists(replaying) && !replay(replaying)) {
+            return;
+        }
+        spillLock.lock();
+        try {
+            if (Files.notExists(spillFile)) {
+                return;
+            }
+            Files.move(spillFile, replaying);
+        } catch (IOException e) {
+            log.error("Cannot replay security events from {}", spillFile, e);
+            return;
+        } finally {
+            spillLock.unlock();
+        }
+        replay(replaying);
+    }
+
+    /*
+     * Stores the events of the file and deletes it. When a batch cannot be stored the file is replaced by
+     * that batch and the lines after it, so the next replay neither loses nor repeats any event.
+     */
+    private boolean replay(Path file) {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            List<SecurityEvent> batch = new ArrayList<>(batchSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                SecurityEvent event = readSpilled(line);
+                if (event != null) {
+                    batch.add(event);
+                }
+                if (batch.size() == batchSize) {
+                    if (!save(batch)) {
+                        keepUnsaved(file, batch, reader);
+                        return false;
+                    }
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty() && !save(batch)) {
+                keepUnsaved(file, batch, reader);
+                return false;
+            }
+        } catch (IOException e) {
+            log.error("Cannot replay security events from {}", file, e);
+            return false;
+        }
+        try {
+            Files.delete(file);
+        } catch (IOException e) {
+            log.error("Cannot delete {}", file, e);
+            return false;
+        }
+        return true;
+    }
+
+    private SecurityEvent readSpilled(String line) {
+        if (line.isBlank()) {
+            return null;
+        }
+        try {
+            SecurityEvent event = spillReader.readValue(line);
+            event.setId(null);
+            return event;
+        } catch (IOException e) {
+            // a line cut short by a crash while spilling
+            log.error("Cannot read spilled security event {}", line, e);
+            droppedCounter.increment();
+            return null;
+        }
+    }
+
+    private void keepUnsaved(Path file, List<SecurityEvent> batch, BufferedReader rest) throws IOException {
+        Path unsaved = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(unsaved, StandardCharsets.UTF_8)) {
+            for (SecurityEvent event : batch) {
+                writer.write(spillWriter.writeValueAsString(event));
+                writer.newLine();
+            }
+            String line;
+            while ((line = rest.readLine()) != null) {
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+        Files.move(unsaved, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,150 @@
+package account.services;
+
+import account.responses.TokenResponse;
+import account.utils.AfterCommit;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Issues and verifies short-lived HMAC-signed bearer tokens.
+ * <p>
+ * A token carries the username, roles and the user's revocation generation at the time it was issued.
+ * Revoking a user bumps the generation, which invalidates every token issued before. Generations live
+ * in memory and are scoped to this process through {@code epoch}, so a token is only valid on the instance
+ * that issued it, revocations are not shared with other instances, and a restart revokes everything.
+ */
+@Service
+public class TokenService {
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final ObjectWriter claimsWriter;
+    private final ObjectReader claimsReader;
+    private final SecretKey key;
+    private final Duration ttl;
+    private final Clock clock;
+    private final long epoch;
+    private final ConcurrentMap<String, Long> generations = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TokenService(
+            ObjectMapper objectMapper,
+            @Value("${account.security.token.secret:}") String secret,
+            @Value("${account.security.token.ttl:15m}") Duration ttl
+    ) {
+        this(objectMapper, secret, ttl, Clock.systemUTC());
+    }
+
+    TokenService(ObjectMapper objectMapper, String secret, Duration ttl, Clock clock) {
+        this.claimsWriter = objectMapper.writerFor(Claims.class).without(SerializationFeature.INDENT_OUTPUT);
+        this.claimsReader = objectMapper.readerFor(Claims.class);
+        this.key = secret.isBlank() ? generateKey() : new SecretKeySpec(Base64.getDecoder().decode(secret), ALGORITHM);
+        this.ttl = ttl;
+        this.clock = clock;
+        this.epoch = clock.millis();
+    }
+
+    public TokenResponse issue(UserDetails user) {
+        String username = user.getUsername();
+        List<String> roles = AuthorityUtils.authorityListToSet(user.getAuthorities()).stream().sorted().toList();
+        long expiresAt = clock.instant().plus(ttl).getEpochSecond();
+        Claims claims = new Claims(username, roles, epoch, generation(username), expiresAt);
+
+        try {
+            String payload = ENCODER.encodeToString(claimsWriter.writeValueAsBytes(claims));
+            String token = payload + "." + ENCODER.encodeToString(sign(payload));
+            return new TokenResponse(token, "Bearer", ttl.toSeconds());
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot serialize token claims", e);
+        }
+    }
+
+    /* Returns the principal of a valid token, or empty if the token is malformed, forged, expired or revoked */
+    public Optional<UserDetails> verify(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot == token.length() - 1) {
+            return Optional.empty();
+        }
+        String payload = token.substring(0, dot);
+        try {
+            if (!MessageDigest.isEqual(sign(payload), DECODER.decode(token.substring(dot + 1)))) {
+                return Optional.empty();
+            }
+            Claims claims = claimsReader.readValue(DECODER.decode(payload));
+            if (claims.epoch() != epoch
+                    || claims.generation() != generation(claims.sub())
+                    || claims.exp() <= clock.instant().getEpochSecond()) {
+                return Optional.empty();
+            }
+            List<GrantedAuthority> authorities = AuthorityUtils.createAuthorityList(claims.roles().toArray(new String[0]));
+            return Optional.of(new User(claims.sub(), "", authorities));
+        } catch (IllegalArgumentException | IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    /*
+     * Invalidates every token issued to the user so far, after the current transaction commits if there is one:
+     * a token issued before the commit still carries what the transaction is about to change
+     */
+    public void revoke(String username) {
+        String key = key(username);
+        AfterCommit.run(() -> generations.merge(key, 1L, Long::sum));
+    }
+
+    private long generation(String username) {
+        return generations.getOrDefault(key(username), 0L);
+    }
+
+    private static String key(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    private byte[] sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign token", e);
+        }
+    }
+
+    private static SecretKey generateKey() {
+        try {
+            return KeyGenerator.getInstance(ALGORITHM).generateKey();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        }
+    }
+
+    private record Claims(String sub, List<String> roles, long epoch, long generation, long exp) {
+    }
+}
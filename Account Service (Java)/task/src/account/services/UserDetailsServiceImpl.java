@@ -3,35 +3,118 @@ package account.services;
 import account.models.Employee;
 import account.models.LoginInformation;
 import account.repositories.EmployeeRepository;
+import account.utils.AfterCommit;
+import account.utils.RoleUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Loads users from the database, keeping an immutable snapshot of each one in memory so that repeated
+ * authentications do not query {@code employees} and {@code login_information}. Authorities come from the
+ * table in {@link RoleUtil} that is shared by all users with the same roles.
+ * Callers that modify an employee must {@link #evict(String)} it; the TTL only bounds staleness for
+ * changes made outside of {@link EmployeeService}. Evictions wait for the caller's transaction to commit,
+ * otherwise a login between the eviction and the commit would cache the old row again.
+ * <p>
+ * Also stores the new hash when the authentication provider rehashes a password that was encoded with an
+ * older algorithm or a lower strength.
+ */
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
+    public static final String CACHE_NAME = "userDetails";
+
     private final EmployeeRepository repo;
+    private final boolean cacheEnabled;
+    private final Cache<String, UserSnapshot> cache;
 
     @Autowired
-    public UserDetailsServiceImpl(EmployeeRepository repo) {
+    public UserDetailsServiceImpl(
+            EmployeeRepository repo,
+            MeterRegistry meterRegistry,
+            @Value("${account.security.user-cache.enabled:true}") boolean cacheEnabled,
+            @Value("${account.security.user-cache.maximum-size:10000}") long maximumSize,
+            @Value("${account.security.user-cache.ttl:5m}") Duration ttl
+    ) {
         this.repo = repo;
+        this.cacheEnabled = cacheEnabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        Employee employee = repo
-                .findByEmailIgnoreCase(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-
-        return User.builder()
-                .username(employee.getEmail())
-                .password(employee.getPassword())
-                .roles(employee.getRoles().toArray(new String[0]))
-                .disabled(!employee.getLoginInformation().isEnabled())
-                .accountLocked(employee.getLoginInformation().isLocked())
-                .build();
+        UserSnapshot snapshot = cacheEnabled
+                ? cache.get(key(username), this::loadSnapshot)
+                : loadSnapshot(username);
+        if (snapshot == null) {
+            throw new UsernameNotFoundException("User not found");
+        }
+        // a fresh instance every time, the authentication manager erases credentials of the one it is given
+        return snapshot.toUserDetails();
+    }
+
+    /* The raw password has just been verified, so this is not a password change and tokens stay valid */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        repo.findByEmailIgnoreCase(user.getUsername()).ifPresent(employee -> {
+            employee.setPassword(newPassword);
+            repo.save(employee);
+        });
+        evict(user.getUsername());
+        return User.withUserDetails(user).password(newPassword).build();
+    }
+
+    /* Drops the cached user, after the current transaction commits if there is one */
+    public void evict(String username) {
+        String key = key(username);
+        AfterCommit.run(() -> cache.invalidate(key));
     }
 
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    private UserSnapshot loadSnapshot(String username) {
+        return repo.findByEmailIgnoreCase(username)
+                .map(UserSnapshot::of)
+                .orElse(null);
+    }
+
+    private static String key(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    private record UserSnapshot(String username, String password, Collection<? extends GrantedAuthority> authorities,
+                                boolean enabled, boolean locked) {
+        static UserSnapshot of(Employee employee) {
+            LoginInformation loginInformation = employee.getLoginInformation();
+            return new UserSnapshot(employee.getEmail(), employee.getPassword(), RoleUtil.authorities(employee.getRoleMask()),
+                    loginInformation.isEnabled(), loginInformation.isLocked());
+        }
+
+        UserDetails toUserDetails() {
+            return new User(username, password, enabled, true, true, !locked, authorities);
+        }
+    }
 }
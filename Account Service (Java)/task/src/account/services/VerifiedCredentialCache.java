@@ -0,0 +1,104 @@
+package account.services;
+
+import account.utils.AfterCommit;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Remembers credentials that have already been verified by the password encoder so that
+ * repeated HTTP Basic requests do not pay the BCrypt cost every time.
+ * <p>
+ * Only a keyed digest of the raw password is kept. The key is generated per process, so the
+ * digests are worthless outside of this JVM. Entries are also bound to the encoded password
+ * they were verified against, which makes them stale as soon as the stored hash changes.
+ */
+@Service
+public class VerifiedCredentialCache {
+    public static final String CACHE_NAME = "verifiedCredentials";
+
+    private final boolean enabled;
+    private final Cache<String, VerifiedCredential> cache;
+    private final SecretKey digestKey;
+
+    @Autowired
+    public VerifiedCredentialCache(
+            MeterRegistry meterRegistry,
+            @Value("${account.security.credential-cache.enabled:true}") boolean enabled,
+            @Value("${account.security.credential-cache.maximum-size:10000}") long maximumSize,
+            @Value("${account.security.credential-cache.ttl:5m}") Duration ttl
+    ) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.digestKey = generateKey();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public boolean isVerified(String username, String rawPassword, String encodedPassword) {
+        if (!enabled) {
+            return false;
+        }
+        VerifiedCredential entry = cache.getIfPresent(key(username));
+        return entry != null
+                && entry.encodedPassword().equals(encodedPassword)
+                && MessageDigest.isEqual(entry.digest(), digest(rawPassword));
+    }
+
+    public void markVerified(String username, String rawPassword, String encodedPassword) {
+        if (enabled) {
+            cache.put(key(username), new VerifiedCredential(digest(rawPassword), encodedPassword));
+        }
+    }
+
+    /* Forgets the verified credential, after the current transaction commits if there is one */
+    public void invalidate(String username) {
+        String key = key(username);
+        AfterCommit.run(() -> cache.invalidate(key));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private static String key(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    private byte[] digest(String rawPassword) {
+        try {
+            Mac mac = Mac.getInstance(digestKey.getAlgorithm());
+            mac.init(digestKey);
+            return mac.doFinal(rawPassword.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot digest credentials", e);
+        }
+    }
+
+    private static SecretKey generateKey() {
+        try {
+            return KeyGenerator.getInstance("HmacSHA256").generateKey();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    private record VerifiedCredential(byte[] digest, String encodedPassword) {
+    }
+}
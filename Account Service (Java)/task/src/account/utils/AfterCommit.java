@@ -0,0 +1,27 @@
+package account.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Runs cache evictions and revocations once the caller's transaction has committed. Doing them earlier lets a
+ * concurrent reader load the rows the transaction is about to change and keep them. Without a transaction the
+ * action runs immediately; after a rollback it does not run at all.
+ */
+public class AfterCommit {
+    private AfterCommit() {
+    }
+
+    public static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
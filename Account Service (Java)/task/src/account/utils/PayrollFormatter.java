@@ -0,0 +1,58 @@
+package account.utils;
+
+import java.time.Month;
+import java.time.YearMonth;
+import java.time.format.TextStyle;
+import java.util.Locale;
+
+/**
+ * Renders salaries and periods the way the API shows them, e.g. {@code 1234 dollar(s) 05 cent(s)} and
+ * {@code January-2024}.
+ * <p>
+ * Digits are appended with integer arithmetic and month names come from a table built once, so the
+ * {@code append} methods allocate nothing and the {@code format} methods only allocate the resulting
+ * String, using a per-thread buffer.
+ */
+public class PayrollFormatter {
+    private static final String[] MONTH_NAMES = new String[12];
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(32));
+
+    static {
+        for (Month month : Month.values()) {
+            MONTH_NAMES[month.ordinal()] = month.getDisplayName(TextStyle.FULL, Locale.ENGLISH);
+        }
+    }
+
+    public static String formatSalary(long salaryInCents) {
+        return appendSalary(buffer(), salaryInCents).toString();
+    }
+
+    public static String formatPeriod(YearMonth period) {
+        return appendPeriod(buffer(), period).toString();
+    }
+
+    public static StringBuilder appendSalary(StringBuilder out, long salaryInCents) {
+        long dollars = salaryInCents / 100;
+        int cents = (int) Math.abs(salaryInCents % 100);
+        if (salaryInCents < 0 && dollars == 0) {
+            out.append('-');
+        }
+        return out.append(dollars)
+                .append(" dollar(s) ")
+                .append((char) ('0' + cents / 10))
+                .append((char) ('0' + cents % 10))
+                .append(" cent(s)");
+    }
+
+    public static StringBuilder appendPeriod(StringBuilder out, YearMonth period) {
+        return out.append(MONTH_NAMES[period.getMonthValue() - 1])
+                .append('-')
+                .append(period.getYear());
+    }
+
+    private static StringBuilder buffer() {
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        return buffer;
+    }
+}
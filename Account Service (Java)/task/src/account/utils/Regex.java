@@ -3,5 +3,5 @@ package account.utils;
 public class Regex {
 
     public static final String EMPLOYEE_EMAIL = "^.+@acme\\.com$";
-    public static final String PAYROLL_PERIOD = "^(0[0-9]|1[0-2])-\\d{4}";
+    public static final String PAYROLL_PERIOD = "^(0[1-9]|1[0-2])-\\d{4}";
 }
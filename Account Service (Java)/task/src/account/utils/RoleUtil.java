@@ -1,19 +1,59 @@
 package account.utils;
 
-import org.springframework.stereotype.Component;
+import account.models.Role;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
+import java.util.ArrayList;
 import java.util.List;
 
-@Component
+/**
+ * Turns role masks into what the API and Spring Security see, and roles into the masks that contain them.
+ * The tables are indexed by mask or role and built once, so every user holding the same roles shares the same
+ * immutable lists and nothing is allocated per lookup.
+ */
 public class RoleUtil {
-    public final static List<String> ROLES = List.of(
-            "ADMINISTRATOR",
-            "USER",
-            "ACCOUNTANT",
-            "AUDITOR"
-    );
+    @SuppressWarnings("unchecked")
+    private static final List<GrantedAuthority>[] AUTHORITIES = new List[Role.MASK_LIMIT];
+    @SuppressWarnings("unchecked")
+    private static final List<String>[] NAMES = new List[Role.MASK_LIMIT];
+    @SuppressWarnings("unchecked")
+    private static final List<Integer>[] MASKS = new List[Role.values().length];
 
-    public boolean isValidRole(String role) {
-        return ROLES.contains(role);
+    static {
+        for (int mask = 0; mask < Role.MASK_LIMIT; mask++) {
+            List<GrantedAuthority> authorities = new ArrayList<>();
+            List<String> names = new ArrayList<>();
+            for (Role role : Role.fromMask(mask)) {
+                authorities.add(new SimpleGrantedAuthority("ROLE_" + role.name()));
+                names.add(role.name());
+            }
+            AUTHORITIES[mask] = List.copyOf(authorities);
+            NAMES[mask] = List.copyOf(names);
+        }
+        for (Role role : Role.values()) {
+            List<Integer> masks = new ArrayList<>();
+            for (int mask = 0; mask < Role.MASK_LIMIT; mask++) {
+                if (role.isIn(mask)) {
+                    masks.add(mask);
+                }
+            }
+            MASKS[role.ordinal()] = List.copyOf(masks);
+        }
+    }
+
+    /* ROLE_ prefixed authorities of every role in the mask */
+    public static List<GrantedAuthority> authorities(int mask) {
+        return AUTHORITIES[mask];
+    }
+
+    /* Names of every role in the mask, in alphabetical order */
+    public static List<String> names(int mask) {
+        return NAMES[mask];
+    }
+
+    /* Every mask that contains the role, in ascending order */
+    public static List<Integer> masksWith(Role role) {
+        return MASKS[role.ordinal()];
     }
 }
@@ -0,0 +1,45 @@
+package account;
+
+import account.authenticationHandler.BoundedPasswordEncoder;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("prod")
+@TestPropertySource(properties = "account.datasource.file=./build/test-databases/prod-profile")
+class DataSourceConfigurationTest {
+
+    @Autowired
+    private HikariDataSource dataSource;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Test
+    void willApplyProductionProfile() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        assertThat(dataSource.getMaximumPoolSize())
+                .isEqualTo(DataSourceConfiguration.poolSizeFor(processors, BoundedPasswordEncoder.threadsFor(0)));
+        assertThat(dataSource.getMinimumIdle()).isEqualTo(dataSource.getMaximumPoolSize());
+        assertThat(jdbcTemplate.queryForList("SELECT SETTING_NAME || '=' || SETTING_VALUE FROM INFORMATION_SCHEMA.SETTINGS", String.class))
+                .contains("CACHE_SIZE=65536", "WRITE_DELAY=1000");
+        assertThat(applicationContext.getBeansOfType(OpenEntityManagerInViewInterceptor.class)).isEmpty();
+    }
+
+    @Test
+    void willLeaveCoresToPasswordHashing() {
+        assertThat(DataSourceConfiguration.poolSizeFor(8, 4)).isEqualTo(8);
+        assertThat(DataSourceConfiguration.poolSizeFor(16, 2)).isEqualTo(28);
+        assertThat(DataSourceConfiguration.poolSizeFor(1, 1)).isEqualTo(2);
+    }
+}
@@ -0,0 +1,20 @@
+package account.authenticationHandler;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BCryptCalibrationTest {
+
+    @Test
+    void willKeepMinimumStrengthWhenBudgetIsTooSmall() {
+        assertThat(BCryptCalibration.strengthFor(Duration.ZERO, 4, 10)).isEqualTo(4);
+    }
+
+    @Test
+    void willNotExceedMaximumStrength() {
+        assertThat(BCryptCalibration.strengthFor(Duration.ofHours(1), 4, 6)).isEqualTo(6);
+    }
+}
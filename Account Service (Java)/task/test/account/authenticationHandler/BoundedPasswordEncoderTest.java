@@ -0,0 +1,85 @@
+package account.authenticationHandler;
+
+import account.exceptions.PasswordHashingRejectedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BoundedPasswordEncoderTest {
+    private MeterRegistry meterRegistry;
+    private BoundedPasswordEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        encoder.close();
+    }
+
+    @Test
+    void willHashOnPoolThreads() {
+        List<String> threads = new CopyOnWriteArrayList<>();
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(4) {
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                threads.add(Thread.currentThread().getName());
+                return super.matches(rawPassword, encodedPassword);
+            }
+        };
+        encoder = new BoundedPasswordEncoder(bcrypt, 2, 10, meterRegistry);
+
+        String encoded = encoder.encode("secretpassword");
+
+        assertThat(encoder.matches("secretpassword", encoded)).isTrue();
+        assertThat(encoder.matches("mistyped_password", encoded)).isFalse();
+        assertThat(threads).allMatch(name -> name.startsWith("password-hashing-")).hasSize(2);
+        assertThat(meterRegistry.get("executor.pool.max").tag("name", BoundedPasswordEncoder.EXECUTOR_NAME).gauge().value())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void willRejectWhenPoolAndQueueAreFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder slow = mock(PasswordEncoder.class);
+        when(slow.matches(any(), anyString())).thenAnswer(invocation -> release.await(10, TimeUnit.SECONDS));
+        encoder = new BoundedPasswordEncoder(slow, 1, 1, meterRegistry);
+
+        List<CompletableFuture<Boolean>> waiting = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            waiting.add(CompletableFuture.supplyAsync(() -> encoder.matches("secretpassword", "hash")));
+        }
+        while (meterRegistry.get("executor.queued").tag("name", BoundedPasswordEncoder.EXECUTOR_NAME).gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        assertThatThrownBy(() -> encoder.matches("secretpassword", "hash"))
+                .isInstanceOf(PasswordHashingRejectedException.class);
+        assertThat(meterRegistry.get("password.hashing.rejected").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        for (CompletableFuture<Boolean> result : waiting) {
+            assertThat(result.get(10, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+}
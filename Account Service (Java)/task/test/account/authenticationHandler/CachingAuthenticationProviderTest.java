@@ -0,0 +1,125 @@
+package account.authenticationHandler;
+
+import account.services.VerifiedCredentialCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class CachingAuthenticationProviderTest {
+    private static final String EMAIL = "johndoe@acme.com";
+    private static final String PASSWORD = "secretpassword";
+
+    private PasswordEncoder encoder;
+    private MeterRegistry meterRegistry;
+    private VerifiedCredentialCache credentialCache;
+    private InMemoryUserDetailsManager userDetailsService;
+    private CachingAuthenticationProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        encoder = spy(new BCryptPasswordEncoder(4));
+        meterRegistry = new SimpleMeterRegistry();
+        credentialCache = new VerifiedCredentialCache(meterRegistry, true, 100, Duration.ofMinutes(5));
+        userDetailsService = new InMemoryUserDetailsManager(
+                User.withUsername(EMAIL).password(encoder.encode(PASSWORD)).roles("USER").build()
+        );
+        provider = new CachingAuthenticationProvider(userDetailsService, encoder, credentialCache);
+    }
+
+    @Test
+    void willOnlyVerifyPasswordOnceForRepeatedLogins() {
+        for (int i = 0; i < 5; i++) {
+            Authentication result = provider.authenticate(token(EMAIL, PASSWORD));
+            assertThat(result.isAuthenticated()).isTrue();
+        }
+
+        verify(encoder, times(1)).matches(anyString(), anyString());
+        assertThat(meterRegistry.get("cache.gets").tag("cache", VerifiedCredentialCache.CACHE_NAME).tag("result", "hit").functionCounter().count())
+                .isEqualTo(4);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", VerifiedCredentialCache.CACHE_NAME).tag("result", "miss").functionCounter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void willMatchUsernameIgnoringCase() {
+        provider.authenticate(token(EMAIL, PASSWORD));
+        provider.authenticate(token(EMAIL.toUpperCase(), PASSWORD));
+
+        verify(encoder, times(1)).matches(anyString(), anyString());
+    }
+
+    @Test
+    void willNotAcceptWrongPasswordAfterCachedLogin() {
+        provider.authenticate(token(EMAIL, PASSWORD));
+
+        assertThatThrownBy(() -> provider.authenticate(token(EMAIL, "wrongpassword")))
+                .isInstanceOf(BadCredentialsException.class);
+        verify(encoder, times(2)).matches(anyString(), anyString());
+    }
+
+    @Test
+    void willVerifyAgainAfterInvalidation() {
+        provider.authenticate(token(EMAIL, PASSWORD));
+        credentialCache.invalidate(EMAIL);
+        provider.authenticate(token(EMAIL, PASSWORD));
+
+        verify(encoder, times(2)).matches(anyString(), anyString());
+    }
+
+    @Test
+    void willVerifyAgainWhenStoredPasswordChanged() {
+        provider.authenticate(token(EMAIL, PASSWORD));
+        userDetailsService.updateUser(User.withUsername(EMAIL).password(encoder.encode("anotherpassword")).roles("USER").build());
+
+        assertThatThrownBy(() -> provider.authenticate(token(EMAIL, PASSWORD)))
+                .isInstanceOf(BadCredentialsException.class);
+    }
+
+    @Test
+    void willAlwaysVerifyWhenDisabled() {
+        credentialCache = new VerifiedCredentialCache(meterRegistry, false, 100, Duration.ofMinutes(5));
+        provider = new CachingAuthenticationProvider(userDetailsService, encoder, credentialCache);
+
+        provider.authenticate(token(EMAIL, PASSWORD));
+        provider.authenticate(token(EMAIL, PASSWORD));
+
+        verify(encoder, times(2)).matches(anyString(), anyString());
+    }
+
+    @Test
+    void willRehashLegacyAndWeakerPasswordsOnLogin() {
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", new BCryptPasswordEncoder(5)));
+        delegating.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        userDetailsService.createUser(User.withUsername("mary@acme.com").password("{bcrypt}" + encoder.encode(PASSWORD)).roles("USER").build());
+        provider = new CachingAuthenticationProvider(userDetailsService, delegating, credentialCache);
+        provider.setUserDetailsPasswordService(userDetailsService);
+
+        provider.authenticate(token(EMAIL, PASSWORD));
+        provider.authenticate(token("mary@acme.com", PASSWORD));
+
+        assertThat(userDetailsService.loadUserByUsername(EMAIL).getPassword()).startsWith("{bcrypt}$2a$05$");
+        assertThat(userDetailsService.loadUserByUsername("mary@acme.com").getPassword()).startsWith("{bcrypt}$2a$05$");
+        assertThat(provider.authenticate(token(EMAIL, PASSWORD)).isAuthenticated()).isTrue();
+    }
+
+    private static UsernamePasswordAuthenticationToken token(String username, String password) {
+        return UsernamePasswordAuthenticationToken.unauthenticated(username, password);
+    }
+}
@@ -0,0 +1,85 @@
+package account.authenticationHandler;
+
+import account.repositories.LoginInformationRepository;
+import account.services.EmployeeService;
+import account.services.LoginAttemptCounter;
+import account.services.SecurityEventService;
+import account.services.UserDetailsServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.event.AuthenticationFailureBadCredentialsEvent;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.mockito.Mockito.*;
+
+class LoginFailedHandlerTest {
+    private static final String EMAIL = "johndoe@acme.com";
+    private static final String PATH = "/api/empl/payment";
+
+    private EmployeeService employeeService;
+    private SecurityEventService securityEventService;
+    private LoginInformationRepository loginInformationRepository;
+    private LoginFailedHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        employeeService = mock(EmployeeService.class);
+        securityEventService = mock(SecurityEventService.class);
+        loginInformationRepository = mock(LoginInformationRepository.class);
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getRequestURI()).thenReturn(PATH);
+        when(employeeService.lockAfterFailedLogins(EMAIL)).thenReturn(true);
+
+        LoginAttemptCounter counter = new LoginAttemptCounter(loginInformationRepository, mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry(), 5, Duration.ofHours(1));
+        handler = new LoginFailedHandler(employeeService, securityEventService, mock(UserDetailsServiceImpl.class), counter, request);
+    }
+
+    @Test
+    void willLockExactlyOnceUnderParallelBadLogins() throws Exception {
+        int logins = 1000;
+        CountDownLatch gate = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(64);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < logins; i++) {
+                results.add(pool.submit(() -> {
+                    gate.await();
+                    handler.onApplicationEvent(badCredentials());
+                    return null;
+                }));
+            }
+            gate.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        verify(employeeService, times(1)).lockAfterFailedLogins(EMAIL);
+        verifyNoMoreInteractions(employeeService);
+        verifyNoInteractions(loginInformationRepository);
+        verify(securityEventService, times(logins)).logLoginFailed(EMAIL, EMAIL, PATH);
+        verify(securityEventService, times(1)).logBruteForce(EMAIL, EMAIL, PATH);
+        verify(securityEventService, times(1)).logLockUser(EMAIL, EMAIL, PATH);
+    }
+
+    private static AuthenticationFailureBadCredentialsEvent badCredentials() {
+        return new AuthenticationFailureBadCredentialsEvent(
+                UsernamePasswordAuthenticationToken.unauthenticated(EMAIL, "mistyped_password"),
+                new BadCredentialsException("Bad credentials"));
+    }
+}
@@ -0,0 +1,54 @@
+package account.authenticationHandler;
+
+import account.repositories.LoginInformationRepository;
+import account.services.EmployeeService;
+import account.services.LoginAttemptCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+
+import static org.mockito.Mockito.*;
+
+class LoginSuccessHandlerTest {
+    private static final String EMAIL = "johndoe@acme.com";
+
+    private EmployeeService employeeService;
+    private LoginAttemptCounter counter;
+    private LoginSuccessHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        employeeService = mock(EmployeeService.class);
+        counter = new LoginAttemptCounter(mock(LoginInformationRepository.class), mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry(), 5, Duration.ofHours(1));
+        handler = new LoginSuccessHandler(employeeService, counter);
+    }
+
+    @Test
+    void willNotTouchEmployeesWithoutFailedAttempts() {
+        handler.onApplicationEvent(success());
+
+        verifyNoInteractions(employeeService);
+    }
+
+    @Test
+    void willResetFailedAttempts() {
+        counter.recordFailure(EMAIL);
+
+        handler.onApplicationEvent(success());
+
+        verify(employeeService).resetLoginAttempts(EMAIL);
+    }
+
+    private static AuthenticationSuccessEvent success() {
+        UserDetails user = User.withUsername(EMAIL).password("secret").roles("USER").build();
+        return new AuthenticationSuccessEvent(UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities()));
+    }
+}
@@ -0,0 +1,87 @@
+package account.benchmarks;
+
+import account.models.Employee;
+import account.repositories.EmployeeRepository;
+import account.repositories.LoginInformationRepository;
+import account.utils.EmployeeFaker;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the SQL statements of an authenticated {@code GET /api/empl/payment} once the user, credential
+ * and payroll caches are warm, so that only the successful-login bookkeeping can reach the database.
+ * Run with {@code -Pbenchmark=true}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:authentication-queries",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class AuthenticationQueriesLoadTest {
+    private static final int WARMUP = 5;
+    private static final int REQUESTS = 200;
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private LoginInformationRepository loginInformationRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private EmployeeFaker faker;
+
+    @AfterEach
+    void tearDown() {
+        employeeRepository.deleteAll();
+        loginInformationRepository.deleteAll();
+    }
+
+    @Test
+    void countStatementsPerAuthenticatedRequest() {
+        restTemplate.postForEntity(url("/api/auth/signup"), faker.generateEmployee(), String.class);
+        Employee user = faker.generateEmployee();
+        restTemplate.postForEntity(url("/api/auth/signup"), user, String.class);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBasicAuth(user.getEmail(), user.getPassword());
+        HttpEntity<Void> request = new HttpEntity<>(headers);
+        for (int i = 0; i < WARMUP; i++) {
+            assertThat(restTemplate.exchange(url("/api/empl/payment"), HttpMethod.GET, request, String.class).getStatusCode())
+                    .isEqualTo(HttpStatus.OK);
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        for (int i = 0; i < REQUESTS; i++) {
+            restTemplate.exchange(url("/api/empl/payment"), HttpMethod.GET, request, String.class);
+        }
+        double statements = (double) statistics.getPrepareStatementCount() / REQUESTS;
+
+        System.out.printf("authenticated requests=%d statements/request=%.2f%n", REQUESTS, statements);
+        assertThat(statements).isZero();
+    }
+
+    private String url(String path) {
+        return "http://localhost:%d%s".formatted(port, path);
+    }
+}
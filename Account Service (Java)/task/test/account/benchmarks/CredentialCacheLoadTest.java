@@ -0,0 +1,98 @@
+package account.benchmarks;
+
+import account.models.Employee;
+import account.repositories.EmployeeRepository;
+import account.repositories.LoginInformationRepository;
+import account.services.VerifiedCredentialCache;
+import account.utils.EmployeeFaker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Per-request latency of {@code GET /api/empl/payment} with and without the verified-credential cache.
+ * Run with {@code -Pbenchmark=true}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:credential-cache-load")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CredentialCacheLoadTest {
+    private static final int REQUESTS = 20;
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private LoginInformationRepository loginInformationRepository;
+    @Autowired
+    private VerifiedCredentialCache credentialCache;
+    @Autowired
+    private EmployeeFaker faker;
+
+    @AfterEach
+    void tearDown() {
+        employeeRepository.deleteAll();
+        loginInformationRepository.deleteAll();
+    }
+
+    @Test
+    void compareLatencyWithAndWithoutCache() {
+        signup(faker.generateEmployee());
+        Employee user = faker.generateEmployee();
+        signup(user);
+
+        long[] uncached = measure(user, true);
+        long[] cached = measure(user, false);
+
+        report("without cache", uncached);
+        report("with cache", cached);
+        assertThat(median(cached)).isLessThan(median(uncached));
+    }
+
+    private long[] measure(Employee user, boolean invalidateBeforeEachRequest) {
+        String url = "http://localhost:%d/api/empl/payment".formatted(port);
+        TestRestTemplate client = restTemplate.withBasicAuth(user.getEmail(), user.getPassword());
+        client.getForEntity(url, String.class);
+
+        long[] latencies = new long[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            if (invalidateBeforeEachRequest) {
+                credentialCache.invalidateAll();
+            }
+            long start = System.nanoTime();
+            ResponseEntity<String> response = client.getForEntity(url, String.class);
+            latencies[i] = System.nanoTime() - start;
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private void signup(Employee employee) {
+        String url = "http://localhost:%d/api/auth/signup".formatted(port);
+        assertThat(restTemplate.postForEntity(url, employee, String.class).getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    private static long median(long[] sorted) {
+        return sorted[sorted.length / 2];
+    }
+
+    private static void report(String label, long[] sorted) {
+        System.out.printf("%-14s requests=%d p50=%.2fms p90=%.2fms max=%.2fms%n", label, sorted.length,
+                sorted[sorted.length / 2] / 1e6, sorted[sorted.length * 9 / 10] / 1e6, sorted[sorted.length - 1] / 1e6);
+    }
+}
@@ -0,0 +1,100 @@
+package account.benchmarks;
+
+import account.ApplicationConfig;
+import account.dtos.DirectDtoMapper;
+import account.dtos.DtoMapper;
+import account.dtos.EmployeeDTO;
+import account.dtos.ModelMapperDtoMapper;
+import account.dtos.PayrollDTO;
+import account.models.Employee;
+import account.models.Payroll;
+import account.models.Role;
+import account.responses.SignupResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * JMH comparison of {@link DirectDtoMapper} and {@link ModelMapperDtoMapper}, reporting ns/op and the bytes
+ * allocated per mapping ({@code gc.alloc.rate.norm}). Run with {@code -Pbenchmark=true}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class DtoMapperLoadTest {
+    private DtoMapper direct;
+    private DtoMapper reflective;
+    private Employee employee;
+    private Payroll payroll;
+
+    @Setup
+    public void setUp() {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(ApplicationConfig.class)) {
+            reflective = new ModelMapperDtoMapper(context.getBean(ModelMapper.class));
+        }
+        direct = new DirectDtoMapper();
+        employee = Employee.builder()
+                .id(7L)
+                .name("John")
+                .lastname("Doe")
+                .email("johndoe@acme.com")
+                .password("secretpassword")
+                .roles(Role.ACCOUNTANT, Role.USER)
+                .build();
+        payroll = Payroll.builder().period(YearMonth.of(2024, 5)).salary(123456L).employee(employee).build();
+    }
+
+    @Benchmark
+    public PayrollDTO directPayroll() {
+        return direct.toPayrollDTO(payroll);
+    }
+
+    @Benchmark
+    public PayrollDTO modelMapperPayroll() {
+        return reflective.toPayrollDTO(payroll);
+    }
+
+    @Benchmark
+    public EmployeeDTO directEmployee() {
+        return direct.toEmployeeDTO(employee);
+    }
+
+    @Benchmark
+    public EmployeeDTO modelMapperEmployee() {
+        return reflective.toEmployeeDTO(employee);
+    }
+
+    @Benchmark
+    public SignupResponse directSignup() {
+        return direct.toSignupResponse(employee);
+    }
+
+    @Benchmark
+    public SignupResponse modelMapperSignup() {
+        return reflective.toSignupResponse(employee);
+    }
+
+    @Test
+    void compareMappers() throws Exception {
+        // also reached through the generated DtoMapperLoadTest_jmhType subclasses, see JmhRunner
+        JmhRunner.assumeBenchmarksEnabled();
+        Map<String, JmhRunner.Score> scores = JmhRunner.run(DtoMapperLoadTest.class);
+
+        for (String mapping : List.of("Payroll", "Employee", "Signup")) {
+            JmhRunner.Score direct = scores.get("direct" + mapping);
+            JmhRunner.Score reflective = scores.get("modelMapper" + mapping);
+            assertThat(direct.nanos()).isLessThan(reflective.nanos());
+            assertThat(direct.bytes()).isLessThan(reflective.bytes());
+        }
+    }
+}
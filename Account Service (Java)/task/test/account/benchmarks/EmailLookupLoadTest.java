@@ -0,0 +1,84 @@
+package account.benchmarks;
+
+import account.models.Role;
+import account.repositories.EmployeeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latency of looking up an employee by email, typed in mixed case, among 1M employees: through
+ * {@link EmployeeRepository#findByEmailIgnoreCase} and {@link EmployeeRepository#existsByEmailIgnoreCase},
+ * and through the {@code upper(email) = upper(?)} predicate that Spring Data derived for them before emails
+ * were stored lower-cased. Run with {@code -Pbenchmark=true}.
+ */
+@SpringBootTest
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:email-lookup")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class EmailLookupLoadTest {
+    private static final int EMPLOYEES = 1_000_000;
+    private static final int LOOKUPS = 20_000;
+    private static final int SCANS = 20;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("""
+                INSERT INTO employees (id, name, lastname, email, password, roles)
+                SELECT X, 'name', 'lastname', 'employee' || LPAD(X, 7, '0') || '@acme.com', 'password', ?
+                FROM SYSTEM_RANGE(1, ?)""", Role.USER.bit(), EMPLOYEES);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DELETE FROM employees");
+    }
+
+    @Test
+    void measureLookupByEmail() {
+        IntConsumer find = i -> assertThat(employeeRepository.findByEmailIgnoreCase(email(i))).isPresent();
+        IntConsumer exists = i -> assertThat(employeeRepository.existsByEmailIgnoreCase(email(i))).isTrue();
+        IntConsumer scan = i -> assertThat(jdbcTemplate.queryForList(
+                "SELECT id FROM employees WHERE UPPER(email) = UPPER(?)", Long.class, email(i))).hasSize(1);
+
+        // the first pass warms up
+        measure(find, LOOKUPS);
+        measure(exists, LOOKUPS);
+        measure(scan, SCANS);
+        double findMicros = measure(find, LOOKUPS);
+        double existsMicros = measure(exists, LOOKUPS);
+        double scanMicros = measure(scan, SCANS);
+
+        System.out.printf("employees=%d findByEmailIgnoreCase: %.1f us/lookup existsByEmailIgnoreCase: %.1f us/lookup upper(email) = upper(?): %.1f us/lookup%n",
+                EMPLOYEES, findMicros, existsMicros, scanMicros);
+        assertThat(findMicros * 10).isLessThan(scanMicros);
+        assertThat(existsMicros * 10).isLessThan(scanMicros);
+    }
+
+    private static double measure(IntConsumer lookup, int lookups) {
+        long start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            lookup.accept(ThreadLocalRandom.current().nextInt(1, EMPLOYEES + 1));
+        }
+        return (System.nanoTime() - start) / 1e3 / lookups;
+    }
+
+    private static String email(int id) {
+        return "Employee%07d@ACME.com".formatted(id);
+    }
+}
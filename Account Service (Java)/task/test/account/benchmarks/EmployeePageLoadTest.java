@@ -0,0 +1,109 @@
+package account.benchmarks;
+
+import account.dtos.EmployeeDTO;
+import account.models.Role;
+import account.requestBodies.EmployeeSort;
+import account.services.EmployeeService;
+import com.sun.management.ThreadMXBean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latency and heap allocation of one page of {@code GET /api/admin/user?limit=100} over 500k employees, at
+ * the start of the table and close to its end, ordered by id, by email, filtered to a role held by every tenth
+ * employee and to a rare one held by every 200th. Keyset pages cost the same wherever the cursor is, so both
+ * columns should match, and a rare role should cost about as much as a common one.
+ * Run with {@code -Pbenchmark=true}.
+ */
+@SpringBootTest
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:employee-page")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class EmployeePageLoadTest {
+    private static final int EMPLOYEES = 500_000;
+    private static final int PAGE_SIZE = 100;
+    private static final int PAGES = 20;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EmployeeService employeeService;
+
+    private final ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("""
+                INSERT INTO employees (id, name, lastname, email, password, roles)
+                SELECT X, 'name', 'lastname', 'employee' || LPAD(X, 7, '0') || '@acme.com', 'password',
+                       CASE WHEN MOD(X, 200) = 0 THEN ? WHEN MOD(X, 10) = 0 THEN ? ELSE ? END
+                FROM SYSTEM_RANGE(1, ?)""", Role.ACCOUNTANT.bit() | Role.AUDITOR.bit(), Role.ACCOUNTANT.bit(),
+                Role.USER.bit(), EMPLOYEES);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DELETE FROM employees");
+    }
+
+    @Test
+    void measurePagesAtStartAndEndOfTable() {
+        int tail = EMPLOYEES - PAGES * PAGE_SIZE;
+        List<Scenario> scenarios = List.of(
+                new Scenario("id", null, EmployeeSort.ID, String.valueOf(tail)),
+                new Scenario("email", null, EmployeeSort.EMAIL, "employee%07d@acme.com".formatted(tail)),
+                new Scenario("role", "ACCOUNTANT", EmployeeSort.ID, String.valueOf(EMPLOYEES - PAGES * PAGE_SIZE * 10)),
+                new Scenario("rare", "AUDITOR", EmployeeSort.ID, String.valueOf(EMPLOYEES - PAGES * PAGE_SIZE * 200)));
+
+        Map<String, Result> ends = new HashMap<>();
+        for (int round = 0; round < ROUNDS; round++) {
+            // the last round is measured, the others warm up
+            for (Scenario scenario : scenarios) {
+                Result start = walk(scenario, null);
+                Result end = walk(scenario, scenario.tailCursor());
+                if (round == ROUNDS - 1) {
+                    System.out.printf("%-5s start: %6.0f us/page %8d bytes/page   end: %6.0f us/page %8d bytes/page%n",
+                            scenario.name(), start.micros(), start.bytes(), end.micros(), end.bytes());
+                    assertThat(end.micros()).isLessThan(start.micros() * 3);
+                    assertThat(end.bytes()).isLessThan(start.bytes() * 2);
+                    ends.put(scenario.name(), end);
+                }
+            }
+        }
+        assertThat(ends.get("rare").micros()).isLessThan(ends.get("role").micros() * 2);
+        assertThat(ends.get("rare").bytes()).isLessThan(ends.get("role").bytes() * 2);
+    }
+
+    /* Follows the cursor for PAGES pages of PAGE_SIZE and returns the average cost of a page */
+    private Result walk(Scenario scenario, String after) {
+        long bytes = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < PAGES; i++) {
+            List<EmployeeDTO> page = employeeService.getEmployees(scenario.role(), scenario.sort(), after, PAGE_SIZE);
+            assertThat(page).hasSize(PAGE_SIZE);
+            EmployeeDTO last = page.get(PAGE_SIZE - 1);
+            after = scenario.sort() == EmployeeSort.EMAIL ? last.getEmail() : String.valueOf(last.getId());
+        }
+        return new Result((System.nanoTime() - start) / 1e3 / PAGES, (threads.getCurrentThreadAllocatedBytes() - bytes) / PAGES);
+    }
+
+    private record Scenario(String name, String role, EmployeeSort sort, String tailCursor) {
+    }
+
+    private record Result(double micros, long bytes) {
+    }
+}
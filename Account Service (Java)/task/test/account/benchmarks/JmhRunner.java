@@ -0,0 +1,53 @@
+package account.benchmarks;
+
+import org.junit.jupiter.api.Assumptions;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Runs the JMH benchmarks of one class with the GC profiler and prints ns/op and bytes allocated per op.
+ * <p>
+ * The benchmarks run inside the test JVM: the Gradle test worker does not expose the test classpath
+ * on {@code java.class.path}, so forked JMH runs could not load them.
+ * <p>
+ * The JMH annotation processor generates public subclasses of every benchmark class in
+ * {@code jmh_generated}. They inherit its {@code @Test} method but not the class level
+ * {@code @EnabledIfSystemProperty}, which is not {@code @Inherited}, so that test has to start with
+ * {@link #assumeBenchmarksEnabled()} as well.
+ */
+class JmhRunner {
+    record Score(double nanos, double bytes) {
+    }
+
+    static void assumeBenchmarksEnabled() {
+        Assumptions.assumeTrue(Boolean.getBoolean("benchmark"), "benchmarks run with -Pbenchmark=true");
+    }
+
+    static Map<String, Score> run(Class<?> benchmarks) throws RunnerException {
+        OptionsBuilder options = new OptionsBuilder();
+        options.include(benchmarks.getName())
+                .forks(0)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .addProfiler(GCProfiler.class);
+
+        Map<String, Score> scores = new TreeMap<>();
+        for (RunResult result : new Runner(options.build()).run()) {
+            String name = result.getParams().getBenchmark();
+            scores.put(name.substring(name.lastIndexOf('.') + 1), new Score(
+                    result.getPrimaryResult().getScore(),
+                    result.getSecondaryResults().get("gc.alloc.rate.norm").getScore()));
+        }
+        scores.forEach((name, score) -> System.out.printf("%-24s %10.1f ns/op %10.0f B/op%n", name, score.nanos(), score.bytes()));
+        return scores;
+    }
+}
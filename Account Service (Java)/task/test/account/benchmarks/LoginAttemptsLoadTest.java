@@ -0,0 +1,158 @@
+package account.benchmarks;
+
+import account.models.Employee;
+import account.models.LoginInformation;
+import account.models.Role;
+import account.repositories.EmployeeRepository;
+import account.repositories.LoginInformationRepository;
+import account.services.LoginAttemptCounter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Failed logins of one user from 8 threads, each counted in a transaction of its own, with the ways the
+ * counter could be written: read-modify-write without any locking (what saving the entity amounted to before
+ * it was versioned), read-modify-write holding a row lock, read-modify-write of the versioned entity retried on
+ * conflict, the atomic {@link LoginInformationRepository#incrementLoginAttempts}, and {@link LoginAttemptCounter},
+ * which counts in memory and adds the total with one increment per flush. Prints increments per second and how
+ * many of them the database lost. Run with {@code -Pbenchmark=true}.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:login-attempts",
+        "account.security.login-attempts.flush-interval=1h"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class LoginAttemptsLoadTest {
+    private static final String EMAIL = "johndoe@acme.com";
+    private static final int THREADS = 8;
+    private static final int INCREMENTS = 1000;
+    private static final int ROUNDS = 3;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private LoginInformationRepository loginInformationRepository;
+    @Autowired
+    private LoginAttemptCounter loginAttemptCounter;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private long id;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        Employee employee = new Employee("John", "Doe", EMAIL, "password123456789", Role.USER);
+        employee.setLoginInformation(new LoginInformation());
+        id = employeeRepository.save(employee).getLoginInformation().getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        employeeRepository.deleteAll();
+    }
+
+    @Test
+    void compareCounterWrites() throws Exception {
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Strategy> strategies = List.of(
+                new Strategy("read-modify-write", () -> transactionTemplate.executeWithoutResult(status -> {
+                    int attempts = jdbcTemplate.queryForObject("SELECT login_attempts FROM login_information WHERE id = ?", Integer.class, id);
+                    jdbcTemplate.update("UPDATE login_information SET login_attempts = ? WHERE id = ?", attempts + 1, id);
+                })),
+                new Strategy("select for update", () -> transactionTemplate.executeWithoutResult(status -> {
+                    int attempts = jdbcTemplate.queryForObject("SELECT login_attempts FROM login_information WHERE id = ? FOR UPDATE", Integer.class, id);
+                    jdbcTemplate.update("UPDATE login_information SET login_attempts = ? WHERE id = ?", attempts + 1, id);
+                })),
+                new Strategy("versioned entity", () -> {
+                    while (true) {
+                        try {
+                            transactionTemplate.executeWithoutResult(status -> entityManager.find(LoginInformation.class, id).increaseLoginAttempts());
+                            return;
+                        } catch (ObjectOptimisticLockingFailureException e) {
+                            conflicts.incrementAndGet();
+                        }
+                    }
+                }),
+                new Strategy("atomic increment", () -> transactionTemplate.executeWithoutResult(status ->
+                        loginInformationRepository.incrementLoginAttempts(EMAIL, 1))),
+                new Strategy("in-memory counter", () -> loginAttemptCounter.recordFailure(EMAIL)));
+
+        for (int round = 0; round < ROUNDS; round++) {
+            // the last round is measured, the others warm up
+            for (Strategy strategy : strategies) {
+                conflicts.set(0);
+                Result result = run(strategy);
+                if (round == ROUNDS - 1) {
+                    System.out.printf("%-18s %8.0f increments/s stored=%d lost=%d conflicts=%d%n", strategy.name(),
+                            result.throughput(), result.stored(), THREADS * INCREMENTS - result.stored(), conflicts.get());
+                    if (!strategy.name().equals("read-modify-write")) {
+                        assertThat(result.stored()).isEqualTo(THREADS * INCREMENTS);
+                    }
+                }
+            }
+        }
+    }
+
+    private Result run(Strategy strategy) throws Exception {
+        loginAttemptCounter.reset(EMAIL);
+        jdbcTemplate.update("UPDATE login_information SET login_attempts = 0 WHERE id = ?", id);
+        CountDownLatch gate = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> threads = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                threads.add(pool.submit(() -> {
+                    gate.await();
+                    for (int i = 0; i < INCREMENTS; i++) {
+                        strategy.increment().run();
+                    }
+                    return null;
+                }));
+            }
+            long start = System.nanoTime();
+            gate.countDown();
+            for (Future<?> thread : threads) {
+                thread.get();
+            }
+            loginAttemptCounter.flush();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            int stored = jdbcTemplate.queryForObject("SELECT login_attempts FROM login_information WHERE id = ?", Integer.class, id);
+            return new Result(THREADS * INCREMENTS / seconds, stored);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private record Strategy(String name, Runnable increment) {
+    }
+
+    private record Result(double throughput, int stored) {
+    }
+}
@@ -0,0 +1,116 @@
+package account.benchmarks;
+
+import account.repositories.EmployeeRepository;
+import account.repositories.LoginInformationRepository;
+import account.utils.EmployeeFaker;
+import com.sun.management.OperatingSystemMXBean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.TestPropertySource;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Password spraying from a single client: random usernames with wrong passwords from 4 threads. The first
+ * attempts are verified by BCrypt until the IP bucket is empty, the rest are rejected by the rate limiter.
+ * Prints process CPU time per attempt in both phases (the client threads run in the same JVM and are
+ * included in both). Run with {@code -Pbenchmark=true}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:login-rate-limit",
+        "account.security.rate-limit.ip.capacity=40",
+        "account.security.rate-limit.refill-period=1h"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class LoginRateLimitLoadTest {
+    private static final int CLIENTS = 4;
+    private static final int HASHED = 40;
+    private static final int REJECTED = 2000;
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private LoginInformationRepository loginInformationRepository;
+    @Autowired
+    private EmployeeFaker faker;
+
+    private final OperatingSystemMXBean os = (OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+    private final AtomicInteger usernames = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        employeeRepository.deleteAll();
+        loginInformationRepository.deleteAll();
+    }
+
+    @Test
+    void measureCpuSavedUnderAttack() throws Exception {
+        restTemplate.postForEntity(url("/api/auth/signup"), faker.generateEmployee(), String.class);
+
+        Phase hashed = attack(HASHED, HttpStatus.UNAUTHORIZED);
+        Phase rejected = attack(REJECTED, HttpStatus.TOO_MANY_REQUESTS);
+
+        System.out.printf("verified attempts=%d cpu=%.0f us/attempt wall=%.0f us/attempt%n",
+                HASHED, hashed.cpuMicros(), hashed.wallMicros());
+        System.out.printf("rejected attempts=%d cpu=%.0f us/attempt wall=%.0f us/attempt%n",
+                REJECTED, rejected.cpuMicros(), rejected.wallMicros());
+        System.out.printf("cpu saved for %d rejected attempts: %.1f s%n",
+                REJECTED, (hashed.cpuMicros() - rejected.cpuMicros()) * REJECTED / 1e6);
+        assertThat(rejected.cpuMicros() * 10).isLessThan(hashed.cpuMicros());
+    }
+
+    private Phase attack(int attempts, HttpStatus expected) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            long cpu = os.getProcessCpuTime();
+            long start = System.nanoTime();
+            List<Future<?>> clients = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                clients.add(pool.submit(() -> {
+                    for (int i = 0; i < attempts / CLIENTS; i++) {
+                        HttpHeaders headers = new HttpHeaders();
+                        headers.setBasicAuth("victim" + usernames.incrementAndGet() + "@acme.com", "mistyped_password");
+                        HttpStatus status = HttpStatus.valueOf(restTemplate.exchange(url("/api/empl/payment"), HttpMethod.GET,
+                                new HttpEntity<>(headers), String.class).getStatusCode().value());
+                        assertThat(status).isEqualTo(expected);
+                    }
+                }));
+            }
+            for (Future<?> client : clients) {
+                client.get();
+            }
+            return new Phase((os.getProcessCpuTime() - cpu) / 1e3 / attempts, (System.nanoTime() - start) / 1e3 / attempts);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private String url(String path) {
+        return "http://localhost:%d%s".formatted(port, path);
+    }
+
+    private record Phase(double cpuMicros, double wallMicros) {
+    }
+}
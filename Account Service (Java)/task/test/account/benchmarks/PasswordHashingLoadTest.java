@@ -0,0 +1,145 @@
+package account.benchmarks;
+
+import account.AccountServiceApplication;
+import account.authenticationHandler.BoundedPasswordEncoder;
+import account.models.Employee;
+import account.responses.TokenResponse;
+import account.utils.EmployeeFaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latency of {@code GET /api/empl/payment} with a bearer token (no hashing) while other clients log in with
+ * HTTP Basic as fast as they can (credential cache and rate limiter off, i.e. one BCrypt verification per
+ * login). Runs the application once with a hashing pool as large as the storm, which is what hashing on the
+ * request threads amounted to, and once with the default bounded pool, printing read p50/p99 and how many
+ * logins got 503. Run with {@code -Pbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PasswordHashingLoadTest {
+    private static final int STORM_CLIENTS = 8;
+    private static final int READ_CLIENTS = 2;
+    private static final long WARMUP_MILLIS = 2000;
+    private static final long MEASURE_MILLIS = 10000;
+
+    private final EmployeeFaker faker = new EmployeeFaker();
+
+    @Test
+    void compareReadLatencyDuringLoginStorm() throws Exception {
+        Result unbounded = run("unbounded", "account.security.hashing.threads=" + STORM_CLIENTS, "account.security.hashing.queue-capacity=1000");
+        Result bounded = run("bounded");
+
+        unbounded.print("unbounded");
+        bounded.print("bounded");
+        assertThat(bounded.p99Micros()).isLessThan(unbounded.p99Micros());
+    }
+
+    private Result run(String name, String... properties) throws Exception {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:password-hashing-" + name,
+                "--server.port=0",
+                "--account.security.credential-cache.enabled=false",
+                "--account.security.rate-limit.enabled=false",
+                "--account.security.events.spill-file=./build/benchmarks/password-hashing-events.ndjson"));
+        Arrays.stream(properties).map(property -> "--" + property).forEach(args::add);
+        // command line arguments, so that they take precedence over application.properties
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(AccountServiceApplication.class)
+                .run(args.toArray(String[]::new))) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            TestRestTemplate restTemplate = new TestRestTemplate();
+            String base = "http://localhost:%d".formatted(port);
+
+            restTemplate.postForEntity(base + "/api/auth/signup", faker.generateEmployee(), String.class);
+            Employee user = faker.generateEmployee();
+            restTemplate.postForEntity(base + "/api/auth/signup", user, String.class);
+            HttpHeaders basic = new HttpHeaders();
+            basic.setBasicAuth(user.getEmail(), user.getPassword());
+            TokenResponse token = restTemplate.postForEntity(base + "/api/auth/token", new HttpEntity<>(basic), TokenResponse.class).getBody();
+            assertThat(token).isNotNull();
+            HttpHeaders bearer = new HttpHeaders();
+            bearer.setBearerAuth(token.token());
+
+            AtomicBoolean storming = new AtomicBoolean(true);
+            AtomicInteger logins = new AtomicInteger();
+            AtomicInteger rejected = new AtomicInteger();
+            ExecutorService pool = Executors.newFixedThreadPool(STORM_CLIENTS + READ_CLIENTS);
+            try {
+                for (int c = 0; c < STORM_CLIENTS; c++) {
+                    pool.submit(() -> {
+                        while (storming.get()) {
+                            HttpStatus status = HttpStatus.valueOf(restTemplate.exchange(base + "/api/empl/payment", HttpMethod.GET,
+                                    new HttpEntity<>(basic), String.class).getStatusCode().value());
+                            logins.incrementAndGet();
+                            if (status == HttpStatus.SERVICE_UNAVAILABLE) {
+                                rejected.incrementAndGet();
+                            }
+                        }
+                    });
+                }
+                Thread.sleep(WARMUP_MILLIS);
+
+                List<Future<long[]>> readers = new ArrayList<>();
+                long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MEASURE_MILLIS);
+                for (int c = 0; c < READ_CLIENTS; c++) {
+                    readers.add(pool.submit(() -> {
+                        List<Long> latencies = new ArrayList<>();
+                        while (System.nanoTime() < end) {
+                            long start = System.nanoTime();
+                            ResponseEntity<String> response = restTemplate.exchange(base + "/api/empl/payment", HttpMethod.GET, new HttpEntity<>(bearer), String.class);
+                            latencies.add(System.nanoTime() - start);
+                            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+                        }
+                        return latencies.stream().mapToLong(Long::longValue).toArray();
+                    }));
+                }
+                List<Long> latencies = new ArrayList<>();
+                for (Future<long[]> reader : readers) {
+                    Arrays.stream(reader.get()).forEach(latencies::add);
+                }
+                storming.set(false);
+
+                MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+                double poolSize = meterRegistry.get("executor.pool.max").tag("name", BoundedPasswordEncoder.EXECUTOR_NAME).gauge().value();
+                long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+                return new Result((int) poolSize, sorted.length, percentile(sorted, 0.5), percentile(sorted, 0.99), logins.get(), rejected.get());
+            } finally {
+                storming.set(false);
+                pool.shutdown();
+                pool.awaitTermination(1, TimeUnit.MINUTES);
+            }
+        }
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1] / 1000;
+    }
+
+    private record Result(int hashingThreads, int reads, long p50Micros, long p99Micros, int logins, int rejected) {
+        void print(String name) {
+            System.out.printf("%-9s hashing-threads=%d reads=%d p50=%d us p99=%d us logins=%d rejected=%d%n",
+                    name, hashingThreads, reads, p50Micros, p99Micros, logins, rejected);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package account.benchmarks;
+
+import account.models.Employee;
+import account.models.Payroll;
+import account.models.Role;
+import account.repositories.EmployeeRepository;
+import account.repositories.LoginInformationRepository;
+import account.repositories.PayrollRepository;
+import account.requestBodies.PayrollRequest;
+import account.services.PayrollResponseCache;
+import account.services.PayrollService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Payday load on {@code GET /api/empl/payment} at the service level: most reads come from a small set of
+ * employees checking their payslip again and again while an accountant occasionally corrects a salary.
+ * The same profile runs once without the cache (serializing every response) and once through
+ * {@link PayrollResponseCache}, printing hit ratio and p50/p99 latency. Run with {@code -Pbenchmark=true}.
+ */
+@SpringBootTest
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:payroll-cache")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PayrollCacheLoadTest {
+    private static final int EMPLOYEES = 500;
+    private static final int HOT_EMPLOYEES = 100;
+    private static final int MONTHS = 24;
+    private static final int CLIENTS = 8;
+    private static final int READS_PER_CLIENT = 5000;
+    private static final int READS_PER_UPDATE = 500;
+
+    @Autowired
+    private PayrollService payrollService;
+    @Autowired
+    private PayrollResponseCache responseCache;
+    @Autowired
+    private PayrollRepository payrollRepository;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private LoginInformationRepository loginInformationRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DELETE FROM payrolls");
+        employeeRepository.deleteAll();
+        loginInformationRepository.deleteAll();
+        responseCache.evictAll();
+    }
+
+    @Test
+    void comparePaydayLatency() throws Exception {
+        List<String> emails = new ArrayList<>();
+        for (int i = 0; i < EMPLOYEES; i++) {
+            Employee employee = employeeRepository.save(new Employee("John", "Doe", "employee%d@acme.com".formatted(i), "password123456789", Role.USER));
+            List<Payroll> payrolls = new ArrayList<>();
+            for (int month = 0; month < MONTHS; month++) {
+                payrolls.add(Payroll.builder().period(YearMonth.of(2023, 1).plusMonths(month)).salary(100000L + month).employee(employee).build());
+            }
+            payrollRepository.saveAll(payrolls);
+            emails.add(employee.getEmail());
+        }
+
+        long[] uncached = payday(emails, email -> objectMapper.writeValueAsBytes(payrollService.getPayroll(email, null, null)));
+        double hitsBefore = cacheGets("hit");
+        double missesBefore = cacheGets("miss");
+        long[] cached = payday(emails, email -> payrollService.getPayrollJson(email, null, null));
+        double hits = cacheGets("hit") - hitsBefore;
+        double misses = cacheGets("miss") - missesBefore;
+
+        System.out.printf("uncached p50=%d us p99=%d us%n", percentile(uncached, 50), percentile(uncached, 99));
+        System.out.printf("cached   p50=%d us p99=%d us hit ratio=%.3f%n", percentile(cached, 50), percentile(cached, 99), hits / (hits + misses));
+        assertThat(percentile(cached, 99)).isLessThan(percentile(uncached, 99));
+    }
+
+    private long[] payday(List<String> emails, Read read) throws Exception {
+        AtomicInteger reads = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            List<Future<long[]>> clients = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                clients.add(pool.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    long[] latencies = new long[READS_PER_CLIENT];
+                    for (int i = 0; i < READS_PER_CLIENT; i++) {
+                        // eight reads in ten come from the hot employees
+                        String email = emails.get(random.nextInt(10) < 8 ? random.nextInt(HOT_EMPLOYEES) : random.nextInt(EMPLOYEES));
+                        if (reads.incrementAndGet() % READS_PER_UPDATE == 0) {
+                            YearMonth period = YearMonth.of(2023, 1).plusMonths(random.nextInt(MONTHS));
+                            payrollService.updatePayroll(new PayrollRequest(period.format(Payroll.PERIOD_FORMATTER), random.nextLong(100000, 200000), email));
+                        }
+                        long start = System.nanoTime();
+                        read.apply(email);
+                        latencies[i] = System.nanoTime() - start;
+                    }
+                    return latencies;
+                }));
+            }
+            long[] all = new long[0];
+            for (Future<long[]> client : clients) {
+                long[] latencies = client.get();
+                int offset = all.length;
+                all = Arrays.copyOf(all, offset + latencies.length);
+                System.arraycopy(latencies, 0, all, offset, latencies.length);
+            }
+            Arrays.sort(all);
+            return all;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", PayrollResponseCache.CACHE_NAME).tag("result", result).functionCounter().count();
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        return sorted[(int) Math.ceil(percentile / 100.0 * sorted.length) - 1] / 1000;
+    }
+
+    private interface Read {
+        byte[] apply(String email) throws Exception;
+    }
+}
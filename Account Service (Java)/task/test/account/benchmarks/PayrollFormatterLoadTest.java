@@ -0,0 +1,79 @@
+package account.benchmarks;
+
+import account.utils.PayrollFormatter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Month;
+import java.time.YearMonth;
+import java.time.format.TextStyle;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * JMH comparison of {@link PayrollFormatter} with the converters it replaced, which went through a
+ * double, {@code String.split} and {@code String.formatted} for salaries and a regex replacement for
+ * periods. Run with {@code -Pbenchmark=true}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class PayrollFormatterLoadTest {
+    private final long salary = 123456L;
+    private final YearMonth period = YearMonth.of(2024, 5);
+    private final String periodString = "05-2024";
+    private final StringBuilder out = new StringBuilder(64);
+
+    @Benchmark
+    public String formatSalary() {
+        return PayrollFormatter.formatSalary(salary);
+    }
+
+    @Benchmark
+    public String legacySalary() {
+        double dollars = (double) salary / 100;
+        String string = String.valueOf(dollars);
+        String[] strings = string.split("\\.");
+        return "%s dollar(s) %s cent(s)".formatted(strings[0], strings[1]);
+    }
+
+    @Benchmark
+    public String formatPeriod() {
+        return PayrollFormatter.formatPeriod(period);
+    }
+
+    @Benchmark
+    public String legacyPeriod() {
+        String numMonth = periodString.substring(0, 2);
+        Month month = Month.of(Integer.parseInt(numMonth));
+        String name = month.getDisplayName(TextStyle.FULL, Locale.ENGLISH);
+        return periodString.replaceFirst(numMonth, name);
+    }
+
+    /* Both fields into a buffer the caller reuses, as a serializer writing many rows would */
+    @Benchmark
+    public int appendBoth() {
+        out.setLength(0);
+        PayrollFormatter.appendPeriod(out, period);
+        PayrollFormatter.appendSalary(out, salary);
+        return out.length();
+    }
+
+    @Test
+    void compareFormatters() throws Exception {
+        // the generated PayrollFormatterLoadTest_jmhType subclasses run this too, without the class level condition
+        JmhRunner.assumeBenchmarksEnabled();
+        Map<String, JmhRunner.Score> scores = JmhRunner.run(PayrollFormatterLoadTest.class);
+
+        assertThat(scores.get("formatSalary").nanos()).isLessThan(scores.get("legacySalary").nanos());
+        assertThat(scores.get("formatSalary").bytes()).isLessThan(scores.get("legacySalary").bytes());
+        assertThat(scores.get("formatPeriod").nanos()).isLessThan(scores.get("legacyPeriod").nanos());
+        assertThat(scores.get("formatPeriod").bytes()).isLessThan(scores.get("legacyPeriod").bytes());
+        assertThat(scores.get("appendBoth").bytes()).isLessThan(1);
+    }
+}
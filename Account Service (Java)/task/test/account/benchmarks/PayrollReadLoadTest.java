@@ -0,0 +1,107 @@
+package account.benchmarks;
+
+import account.dtos.DtoMapper;
+import account.dtos.PayrollDTO;
+import account.models.Employee;
+import account.models.Payroll;
+import account.models.Role;
+import account.repositories.EmployeeRepository;
+import account.repositories.LoginInformationRepository;
+import account.repositories.PayrollRepository;
+import account.services.PayrollService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reads the payrolls of an employee with 20 years of monthly payroll, once by loading {@link Payroll}
+ * entities and mapping them and once through the {@code PayrollView} projection behind
+ * {@link PayrollService#getPayroll(String)}. Prints statements, entities loaded and latency per read.
+ * Run with {@code -Pbenchmark=true}.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:payroll-read",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PayrollReadLoadTest {
+    private static final int MONTHS = 20 * 12;
+    private static final int WARMUP = 200;
+    private static final int READS = 1000;
+
+    @Autowired
+    private PayrollService payrollService;
+    @Autowired
+    private PayrollRepository payrollRepository;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private LoginInformationRepository loginInformationRepository;
+    @Autowired
+    private DtoMapper dtoMapper;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DELETE FROM payrolls");
+        employeeRepository.deleteAll();
+        loginInformationRepository.deleteAll();
+    }
+
+    @Test
+    void compareEntityAndProjectionReads() {
+        Employee employee = employeeRepository.save(new Employee("John", "Doe", "johndoe@acme.com", "password123456789", Role.USER));
+        List<Payroll> payrolls = new ArrayList<>();
+        for (int i = 0; i < MONTHS; i++) {
+            payrolls.add(Payroll.builder().period(YearMonth.of(2004, 1).plusMonths(i)).salary(100000L + i).employee(employee).build());
+        }
+        payrollRepository.saveAll(payrolls);
+        String email = employee.getEmail();
+
+        Read entities = measure(() -> payrollRepository.findByEmployeeEmail(email).stream().map(dtoMapper::toPayrollDTO).toList());
+        Read projection = measure(() -> payrollService.getPayroll(email));
+
+        System.out.printf("entities   rows=%d statements/read=%.1f entities/read=%.1f latency=%.0f us%n",
+                MONTHS, entities.statements(), entities.entities(), entities.micros());
+        System.out.printf("projection rows=%d statements/read=%.1f entities/read=%.1f latency=%.0f us%n",
+                MONTHS, projection.statements(), projection.entities(), projection.micros());
+        assertThat(projection.statements()).isEqualTo(1);
+        assertThat(projection.entities()).isZero();
+        assertThat(projection.micros()).isLessThan(entities.micros());
+    }
+
+    private Read measure(Supplier<List<PayrollDTO>> read) {
+        for (int i = 0; i < WARMUP; i++) {
+            assertThat(read.get()).hasSize(MONTHS);
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long start = System.nanoTime();
+        for (int i = 0; i < READS; i++) {
+            read.get();
+        }
+        double micros = (System.nanoTime() - start) / 1e3 / READS;
+        return new Read((double) statistics.getPrepareStatementCount() / READS, (double) statistics.getEntityLoadCount() / READS, micros);
+    }
+
+    private record Read(double statements, double entities, double micros) {
+    }
+}
@@ -0,0 +1,72 @@
+package account.benchmarks;
+
+import account.dtos.PayrollDTO;
+import account.utils.PayrollFormatter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * JMH comparison of serializing twenty years of payrolls with the application wide indented writer,
+ * as every payroll response used to be, and with the compact writer the payroll endpoints now use.
+ * Bytes on the wire are printed next to the scores. Run with {@code -Pbenchmark=true}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class PayrollSerializationLoadTest {
+    private static final int MONTHS = 240;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().indentOutput(true).build();
+    private final ObjectWriter indentedWriter = objectMapper.writer();
+    private final ObjectWriter compactWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+    private final List<PayrollDTO> payrolls = payrolls();
+
+    @Benchmark
+    public byte[] indented() throws Exception {
+        return indentedWriter.writeValueAsBytes(payrolls);
+    }
+
+    @Benchmark
+    public byte[] compact() throws Exception {
+        return compactWriter.writeValueAsBytes(payrolls);
+    }
+
+    @Test
+    void compareWriters() throws Exception {
+        // inherited by the generated _jmhType subclasses, which do not see @EnabledIfSystemProperty
+        JmhRunner.assumeBenchmarksEnabled();
+        int indentedBytes = indented().length;
+        int compactBytes = compact().length;
+
+        Map<String, JmhRunner.Score> scores = JmhRunner.run(PayrollSerializationLoadTest.class);
+
+        System.out.printf("indented %d bytes/response%n", indentedBytes);
+        System.out.printf("compact  %d bytes/response%n", compactBytes);
+        assertThat(compactBytes).isLessThan(indentedBytes);
+        assertThat(scores.get("compact").nanos()).isLessThan(scores.get("indented").nanos());
+    }
+
+    private static List<PayrollDTO> payrolls() {
+        List<PayrollDTO> payrolls = new ArrayList<>(MONTHS);
+        YearMonth period = YearMonth.of(2024, 12);
+        for (int i = 0; i < MONTHS; i++, period = period.minusMonths(1)) {
+            payrolls.add(new PayrollDTO("John", "Doe", PayrollFormatter.formatPeriod(period),
+                    PayrollFormatter.formatSalary(100_000L + i * 137L)));
+        }
+        return payrolls;
+    }
+}
@@ -0,0 +1,140 @@
+package account.benchmarks;
+
+import account.models.Employee;
+import account.models.Role;
+import account.repositories.EmployeeRepository;
+import account.repositories.LoginInformationRepository;
+import account.services.PayrollUploadService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Streams a generated upload of a million payrolls through {@link PayrollUploadService} and samples the heap
+ * every 100k rows while the body is being parsed. Used heap must not grow with the number of rows read.
+ * The database is file backed so that the staged rows do not count towards the heap.
+ * Run with {@code -Pbenchmark=true}.
+ */
+@SpringBootTest
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:file:./build/benchmarks/payroll-streaming-upload")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PayrollStreamingUploadLoadTest {
+    private static final int EMPLOYEES = 1000;
+    private static final int ROWS = 1_000_000;
+    private static final int SAMPLE_EVERY = 100_000;
+    private static final long MAX_GROWTH_BYTES = 32L * 1024 * 1024;
+
+    @Autowired
+    private PayrollUploadService payrollUploadService;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private LoginInformationRepository loginInformationRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("TRUNCATE TABLE payrolls");
+        employeeRepository.deleteAll();
+        loginInformationRepository.deleteAll();
+    }
+
+    @Test
+    void heapStaysFlatWhileUploading() throws Exception {
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < EMPLOYEES; i++) {
+            employees.add(new Employee("John", "Doe", "employee%d@acme.com".formatted(i), "password123456789", Role.USER));
+        }
+        employeeRepository.saveAll(employees);
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        List<Long> samples = new ArrayList<>();
+
+        long start = System.nanoTime();
+        long saved = payrollUploadService.savePayrolls(new GeneratedUpload(ROWS, row -> {
+            if (row % SAMPLE_EVERY == 0) {
+                System.gc();
+                samples.add(memory.getHeapMemoryUsage().getUsed());
+            }
+        }));
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("uploaded %d rows in %.1fs (%.0f rows/s), used heap every 100k rows (MB): %s%n", saved, seconds, saved / seconds,
+                samples.stream().map(bytes -> "%.1f".formatted(bytes / 1048576.0)).toList());
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM payrolls", Long.class)).isEqualTo(ROWS);
+        long first = samples.get(0);
+        assertThat(samples).allMatch(used -> used - first < MAX_GROWTH_BYTES);
+    }
+
+    /* A JSON array of payrolls produced on demand, calling back before each row is generated */
+    private static class GeneratedUpload extends InputStream {
+        interface RowListener {
+            void beforeRow(int row);
+        }
+
+        private final int rows;
+        private final RowListener listener;
+        private byte[] buffer = "[".getBytes(StandardCharsets.UTF_8);
+        private int position;
+        private int row;
+
+        GeneratedUpload(int rows, RowListener listener) {
+            this.rows = rows;
+            this.listener = listener;
+        }
+
+        @Override
+        public int read() {
+            if (position == buffer.length && !fill()) {
+                return -1;
+            }
+            return buffer[position++] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (position == buffer.length && !fill()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.length - position);
+            System.arraycopy(buffer, position, target, offset, count);
+            position += count;
+            return count;
+        }
+
+        private boolean fill() {
+            if (row > rows) {
+                return false;
+            }
+            if (row == rows) {
+                buffer = "]".getBytes(StandardCharsets.UTF_8);
+            } else {
+                listener.beforeRow(row);
+                int month = row / EMPLOYEES;
+                String json = "%s{\"employee\":\"employee%d@acme.com\",\"period\":\"%02d-%04d\",\"salary\":%d}".formatted(
+                        row == 0 ? "" : ",", row % EMPLOYEES, month % 12 + 1, 2000 + month / 12, 100000 + row);
+                buffer = json.getBytes(StandardCharsets.UTF_8);
+            }
+            position = 0;
+            row++;
+            return true;
+        }
+    }
+}
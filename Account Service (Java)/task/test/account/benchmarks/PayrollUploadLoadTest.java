@@ -0,0 +1,106 @@
+package account.benchmarks;
+
+import account.models.Employee;
+import account.models.Role;
+import account.repositories.EmployeeRepository;
+import account.repositories.LoginInformationRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Upload throughput of {@code POST /api/acct/payments} for growing batch sizes, spread over 1000 employees.
+ * Sizes can be overridden with {@code -Dpayroll.upload.sizes=10000,100000}.
+ * Run with {@code -Pbenchmark=true}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:payroll-upload")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PayrollUploadLoadTest {
+    private static final int EMPLOYEES = 1000;
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private LoginInformationRepository loginInformationRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DELETE FROM payrolls");
+        employeeRepository.deleteAll();
+        loginInformationRepository.deleteAll();
+    }
+
+    @Test
+    void measureUploadThroughput() throws Exception {
+        String password = passwordEncoder.encode("benchmarkpassword");
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < EMPLOYEES; i++) {
+            employees.add(new Employee("John", "Doe", "employee%d@acme.com".formatted(i), password, Role.USER));
+        }
+        employeeRepository.saveAll(employees);
+
+        int[] sizes = Arrays.stream(System.getProperty("payroll.upload.sizes", "10000,100000,1000000").split(","))
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        for (int size : sizes) {
+            byte[] body = objectMapper.writeValueAsBytes(payrolls(size));
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+
+            long start = System.nanoTime();
+            ResponseEntity<String> response = restTemplate.postForEntity(url("/api/acct/payments"), new HttpEntity<>(body, headers), String.class);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM payrolls", Long.class)).isEqualTo(size);
+            System.out.printf("rows=%d time=%.1fs throughput=%.0f rows/s%n", size, seconds, size / seconds);
+            jdbcTemplate.execute("DELETE FROM payrolls");
+        }
+    }
+
+    /* Consecutive months per employee so that (employee, period) stays unique */
+    private static List<Map<String, Object>> payrolls(int size) {
+        List<Map<String, Object>> payrolls = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int month = i / EMPLOYEES;
+            String period = "%02d-%04d".formatted(month % 12 + 1, 2000 + month / 12);
+            payrolls.add(Map.of("employee", "employee%d@acme.com".formatted(i % EMPLOYEES), "period", period, "salary", 100000L + i));
+        }
+        return payrolls;
+    }
+
+    private String url(String path) {
+        return "http://localhost:%d%s".formatted(port, path);
+    }
+}
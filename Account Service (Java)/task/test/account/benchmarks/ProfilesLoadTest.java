@@ -0,0 +1,233 @@
+package account.benchmarks;
+
+import account.AccountServiceApplication;
+import account.responses.TokenResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the main endpoints against the application started with each of {@link #PROFILES}, on a fresh file
+ * database of its own, and writes a comparison of throughput and latency to
+ * {@code build/benchmarks/profiles.md}. Every profile gets the same employees, payrolls and request sequence
+ * from {@link #SEED}, sent by {@link #CLIENTS} threads. The whole sequence runs {@link #ROUNDS} times with the
+ * profiles alternating and only the last round is reported, so that no profile profits from a JIT warmed up
+ * by another. BCrypt strength is fixed at 4 so that hashing does not hide the database. Run with
+ * {@code -Pbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ProfilesLoadTest {
+    private static final String[] PROFILES = {"default", "prod"};
+    private static final int ROUNDS = 2;
+    private static final long SEED = 42;
+    private static final int CLIENTS = 16;
+    private static final int EMPLOYEES = 200;
+    private static final int MONTHS = 12;
+    private static final int UPDATES = 1000;
+    private static final int LOGINS = 1000;
+    private static final int PAYMENT_READS = 5000;
+    private static final int USER_PAGES = 2000;
+    private static final String PASSWORD = "benchmark-password-1234";
+    private static final Path OUTPUT = Path.of("build", "benchmarks");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void compareProfiles() throws Exception {
+        Map<String, List<Result>> results = new LinkedHashMap<>();
+        for (int round = 1; round <= ROUNDS; round++) {
+            for (String profile : PROFILES) {
+                results.put(profile, run(profile, round));
+            }
+        }
+
+        String report = report(results);
+        Files.createDirectories(OUTPUT);
+        Files.writeString(OUTPUT.resolve("profiles.md"), report);
+        System.out.print(report);
+        assertThat(results.values()).allSatisfy(profile ->
+                assertThat(profile).allSatisfy(result -> assertThat(result.errors()).as(result.endpoint()).isZero()));
+    }
+
+    private List<Result> run(String profile, int round) throws Exception {
+        Path database = OUTPUT.resolve("profiles").resolve(profile + "-" + round);
+        FileSystemUtils.deleteRecursively(database);
+        String[] args = {
+                "--spring.profiles.active=" + profile,
+                "--account.datasource.file=" + database.resolve("service_db").toAbsolutePath(),
+                "--server.port=0",
+                "--account.security.password.strength=4",
+                "--account.security.rate-limit.enabled=false",
+                "--account.security.events.spill-file=" + database.resolve("events.ndjson")
+        };
+        // command line arguments, so that they take precedence over the profile
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(AccountServiceApplication.class).run(args)) {
+            String base = "http://localhost:%d".formatted(((WebServerApplicationContext) context).getWebServer().getPort());
+            Random random = new Random(SEED);
+            String[] emails = new String[EMPLOYEES];
+            for (int i = 0; i < EMPLOYEES; i++) {
+                emails[i] = "employee%03d@acme.com".formatted(i);
+            }
+            long[] salaries = random.longs(EMPLOYEES * MONTHS, 10_000, 1_000_000).toArray();
+            int[] updated = random.ints(UPDATES, 0, EMPLOYEES * MONTHS).toArray();
+            int[] readers = random.ints(PAYMENT_READS, 1, EMPLOYEES).toArray();
+            String[] tokens = new String[EMPLOYEES];
+
+            Request signup = i -> post(base + "/api/auth/signup", null, Map.of(
+                    "name", "Employee", "lastname", String.valueOf(i), "email", emails[i], "password", PASSWORD));
+            // alone, as every signup that finds no employees yet becomes an administrator, who has no payroll to read
+            assertThat(signup.send(0).statusCode()).isEqualTo(200);
+
+            List<Result> results = new ArrayList<>();
+            results.add(measure("POST /api/auth/signup", EMPLOYEES - 1, i -> signup.send(i + 1)));
+            results.add(measure("POST /api/acct/payments", EMPLOYEES, i -> {
+                List<Map<String, Object>> payrolls = new ArrayList<>();
+                for (int month = 0; month < MONTHS; month++) {
+                    payrolls.add(payroll(emails[i], month, salaries[i * MONTHS + month]));
+                }
+                return post(base + "/api/acct/payments", null, payrolls);
+            }));
+            results.add(measure("PUT /api/acct/payments", UPDATES, i -> {
+                int row = updated[i];
+                return send(HttpRequest.newBuilder(URI.create(base + "/api/acct/payments"))
+                        .PUT(json(payroll(emails[row / MONTHS], row % MONTHS, salaries[row] + i))));
+            }));
+            results.add(measure("POST /api/auth/token", LOGINS, i -> {
+                int employee = i % EMPLOYEES;
+                HttpResponse<String> response = post(base + "/api/auth/token", basic(emails[employee]), null);
+                if (response.statusCode() == 200) {
+                    tokens[employee] = objectMapper.readValue(response.body(), TokenResponse.class).token();
+                }
+                return response;
+            }));
+            results.add(measure("GET /api/empl/payment", PAYMENT_READS, i -> send(HttpRequest.newBuilder(URI.create(base + "/api/empl/payment"))
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokens[readers[i]]))));
+            results.add(measure("GET /api/admin/user?limit=50", USER_PAGES, i -> send(HttpRequest.newBuilder(URI.create(base + "/api/admin/user?limit=50&after=" + (i % EMPLOYEES)))
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokens[0]))));
+            return results;
+        }
+    }
+
+    /* Sends requests 0 to count - 1 from CLIENTS threads, each taking the next index when its previous request is answered */
+    private Result measure(String endpoint, int count, Request request) throws Exception {
+        long[] latencies = new long[count];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(CLIENTS);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> clients = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                clients.add(pool.submit(() -> {
+                    for (int i = next.getAndIncrement(); i < count; i = next.getAndIncrement()) {
+                        long sent = System.nanoTime();
+                        HttpResponse<String> response = request.send(i);
+                        latencies[i] = System.nanoTime() - sent;
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> c : clients) {
+                c.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        Arrays.sort(latencies);
+        return new Result(endpoint, count / seconds, percentile(latencies, 0.5), percentile(latencies, 0.99), errors.get());
+    }
+
+    private HttpResponse<String> post(String uri, String authorization, Object body) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(uri))
+                .POST(body == null ? HttpRequest.BodyPublishers.noBody() : json(body));
+        if (authorization != null) {
+            request.header(HttpHeaders.AUTHORIZATION, authorization);
+        }
+        return send(request);
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest.BodyPublisher json(Object body) throws IOException {
+        return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+    }
+
+    private static Map<String, Object> payroll(String email, int month, long salary) {
+        return Map.of("employee", email, "period", "%02d-2023".formatted(month + 1), "salary", salary);
+    }
+
+    private static String basic(String email) {
+        return "Basic " + Base64.getEncoder().encodeToString((email + ":" + PASSWORD).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * percentile))] / 1e6;
+    }
+
+    /* One column per profile, and the throughput of every profile relative to the first */
+    private static String report(Map<String, List<Result>> results) {
+        List<String> profiles = new ArrayList<>(results.keySet());
+        StringBuilder report = new StringBuilder("# Profiles, %d clients, %d processors%n%n".formatted(CLIENTS, Runtime.getRuntime().availableProcessors()));
+        report.append("| endpoint |");
+        profiles.forEach(profile -> report.append(" %s req/s (p50 / p99 ms) |".formatted(profile)));
+        profiles.subList(1, profiles.size()).forEach(profile -> report.append(" %s / %s |".formatted(profile, profiles.get(0))));
+        report.append(System.lineSeparator()).append("|---|").append("---|".repeat(profiles.size() * 2 - 1)).append(System.lineSeparator());
+
+        List<Result> baseline = results.get(profiles.get(0));
+        for (int row = 0; row < baseline.size(); row++) {
+            report.append("| ").append(baseline.get(row).endpoint()).append(" |");
+            for (String profile : profiles) {
+                Result result = results.get(profile).get(row);
+                report.append(" %.0f (%.1f / %.1f) |".formatted(result.throughput(), result.p50Millis(), result.p99Millis()));
+            }
+            for (String profile : profiles.subList(1, profiles.size())) {
+                report.append(" %.2f |".formatted(results.get(profile).get(row).throughput() / baseline.get(row).throughput()));
+            }
+            report.append(System.lineSeparator());
+        }
+        return report.toString();
+    }
+
+    private interface Request {
+        HttpResponse<String> send(int index) throws IOException, InterruptedException;
+    }
+
+    private record Result(String endpoint, double throughput, double p50Millis, double p99Millis, int errors) {
+    }
+}
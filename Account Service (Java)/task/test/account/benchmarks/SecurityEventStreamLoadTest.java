@@ -0,0 +1,99 @@
+package account.benchmarks;
+
+import account.models.SecurityEvent;
+import account.requestBodies.SecurityEventFilter;
+import account.services.SecurityEventService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Streams a million security events as NDJSON and samples the heap after every 100k rows.
+ * The retained heap must not grow with the number of rows already written.
+ * Run with {@code -Pbenchmark=true}.
+ */
+@SpringBootTest
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:security-event-stream")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SecurityEventStreamLoadTest {
+    private static final int EVENTS = 1_000_000;
+    private static final int SAMPLE_EVERY = 100_000;
+    private static final long MAX_GROWTH_BYTES = 32L * 1024 * 1024;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private SecurityEventService securityEventService;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("TRUNCATE TABLE information_security_events");
+    }
+
+    @Test
+    void heapStaysFlatWhileStreaming() {
+        jdbcTemplate.update("""
+                INSERT INTO information_security_events (id, date, action, subject, object, path)
+                SELECT NEXT VALUE FOR information_security_events_seq,
+                       DATEADD(DAY, MOD(X, 365), DATE '2024-01-01'),
+                       CASEWHEN(MOD(X, 2) = 0, 'LOGIN_FAILED', 'ACCESS_DENIED'),
+                       'user' || MOD(X, 1000) || '@acme.com',
+                       'user' || MOD(X, 1000) || '@acme.com',
+                       '/api/empl/payment'
+                FROM SYSTEM_RANGE(1, ?)
+                """, EVENTS);
+
+        ObjectWriter writer = objectMapper.writerFor(SecurityEvent.class)
+                .without(SerializationFeature.INDENT_OUTPUT)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        OutputStream out = OutputStream.nullOutputStream();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        AtomicLong rows = new AtomicLong();
+        List<Long> samples = new ArrayList<>();
+
+        long start = System.nanoTime();
+        securityEventService.forEachSecurityEvent(SecurityEventFilter.NONE, 0, event -> {
+            try {
+                writer.writeValue(out, event);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (rows.incrementAndGet() % SAMPLE_EVERY == 0) {
+                samples.add(usedHeapAfterGc(memory));
+            }
+        });
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("streamed %d events in %.1fs, used heap every 100k rows (MB): %s%n", rows.get(), seconds,
+                samples.stream().map(bytes -> "%.1f".formatted(bytes / 1048576.0)).toList());
+        assertThat(rows.get()).isEqualTo(EVENTS);
+        long first = samples.get(0);
+        assertThat(samples).allMatch(used -> used - first < MAX_GROWTH_BYTES);
+    }
+
+    private static long usedHeapAfterGc(MemoryMXBean memory) {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
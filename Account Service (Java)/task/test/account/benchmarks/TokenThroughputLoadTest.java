@@ -0,0 +1,109 @@
+package account.benchmarks;
+
+import account.models.Employee;
+import account.repositories.EmployeeRepository;
+import account.repositories.LoginInformationRepository;
+import account.responses.TokenResponse;
+import account.utils.EmployeeFaker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput of {@code GET /api/empl/payment} authenticated with HTTP Basic (credential cache disabled,
+ * i.e. one BCrypt verification per request) versus a bearer token from {@code /api/auth/token}.
+ * Run with {@code -Pbenchmark=true}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:token-throughput",
+        "account.security.credential-cache.enabled=false"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TokenThroughputLoadTest {
+    private static final int CLIENTS = 4;
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private LoginInformationRepository loginInformationRepository;
+    @Autowired
+    private EmployeeFaker faker;
+
+    @AfterEach
+    void tearDown() {
+        employeeRepository.deleteAll();
+        loginInformationRepository.deleteAll();
+    }
+
+    @Test
+    void compareBasicAndBearerThroughput() throws Exception {
+        restTemplate.postForEntity(url("/api/auth/signup"), faker.generateEmployee(), String.class);
+        Employee user = faker.generateEmployee();
+        restTemplate.postForEntity(url("/api/auth/signup"), user, String.class);
+
+        HttpHeaders basic = new HttpHeaders();
+        basic.setBasicAuth(user.getEmail(), user.getPassword());
+        TokenResponse token = restTemplate.postForEntity(url("/api/auth/token"), new HttpEntity<>(basic), TokenResponse.class).getBody();
+        assertThat(token).isNotNull();
+        HttpHeaders bearer = new HttpHeaders();
+        bearer.setBearerAuth(token.token());
+
+        double basicThroughput = throughput(basic, 5);
+        double bearerThroughput = throughput(bearer, 250);
+
+        System.out.printf("basic  clients=%d throughput=%.1f req/s%n", CLIENTS, basicThroughput);
+        System.out.printf("bearer clients=%d throughput=%.1f req/s%n", CLIENTS, bearerThroughput);
+        assertThat(bearerThroughput).isGreaterThan(basicThroughput);
+    }
+
+    private double throughput(HttpHeaders headers, int requestsPerClient) throws Exception {
+        HttpEntity<Void> request = new HttpEntity<>(headers);
+        ExecutorService pool = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> clients = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                clients.add(pool.submit(() -> {
+                    for (int i = 0; i < requestsPerClient; i++) {
+                        ResponseEntity<String> response = restTemplate.exchange(url("/api/empl/payment"), HttpMethod.GET, request, String.class);
+                        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+                    }
+                }));
+            }
+            for (Future<?> client : clients) {
+                client.get();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            return CLIENTS * requestsPerClient / seconds;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private String url(String path) {
+        return "http://localhost:%d%s".formatted(port, path);
+    }
+}
@@ -0,0 +1,88 @@
+package account.benchmarks;
+
+import account.models.Employee;
+import account.models.Role;
+import account.repositories.EmployeeRepository;
+import account.services.UserDetailsServiceImpl;
+import com.sun.management.ThreadMXBean;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.context.TestPropertySource;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latency, SQL statements and heap allocation of {@link UserDetailsServiceImpl#loadUserByUsername} with the
+ * user cache disabled, i.e. the database load behind every cache miss, for users holding two roles.
+ * Run with {@code -Pbenchmark=true}.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:user-details",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn",
+        "account.security.user-cache.enabled=false"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class UserDetailsLoadTest {
+    private static final int USERS = 1000;
+    private static final int WARMUP = 20_000;
+    private static final int LOADS = 50_000;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @AfterEach
+    void tearDown() {
+        employeeRepository.deleteAll();
+    }
+
+    @Test
+    void measureLoadUserByUsername() {
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            employees.add(new Employee("John", "Doe", "employee%d@acme.com".formatted(i), "password123456789", Role.USER, Role.ACCOUNTANT));
+        }
+        employeeRepository.saveAll(employees);
+
+        for (int i = 0; i < WARMUP; i++) {
+            load(i);
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long bytes = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < LOADS; i++) {
+            load(i);
+        }
+        double micros = (System.nanoTime() - start) / 1e3 / LOADS;
+        long allocated = (threads.getCurrentThreadAllocatedBytes() - bytes) / LOADS;
+        double statements = (double) statistics.getPrepareStatementCount() / LOADS;
+
+        System.out.printf("loadUserByUsername loads=%d %.1f us/load %.2f statements/load %d bytes/load%n",
+                LOADS, micros, statements, allocated);
+        assertThat(statements).isEqualTo(1);
+    }
+
+    private void load(int i) {
+        UserDetails user = userDetailsService.loadUserByUsername("employee%d@acme.com".formatted(i % USERS));
+        assertThat(user.getAuthorities()).hasSize(2);
+    }
+}
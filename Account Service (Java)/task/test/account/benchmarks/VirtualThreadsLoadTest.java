@@ -0,0 +1,160 @@
+package account.benchmarks;
+
+import account.AccountServiceApplication;
+import account.models.Employee;
+import account.responses.TokenResponse;
+import account.utils.EmployeeFaker;
+import com.sun.management.UnixOperatingSystemMXBean;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Throughput of {@code GET /api/empl/payment} (served from the payroll cache) and {@code GET /api/admin/user}
+ * (a database read) with 1k and 10k concurrent clients, once with Tomcat's platform thread pool and once with
+ * {@code spring.threads.virtual.enabled=true}. Clients authenticate with bearer tokens so that BCrypt does not
+ * dominate, and each client is an asynchronous request chain of the JDK {@link HttpClient} rather than a
+ * thread, so that the client side does not need 10k threads itself.
+ * <p>
+ * Both sides run in this JVM and each client holds a connection, so the 10k level needs twice as many file
+ * descriptors and is skipped below that. The virtual thread run needs Java 21. Run with
+ * {@code -Pbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class VirtualThreadsLoadTest {
+    private static final int[] CLIENTS = {1_000, 10_000};
+    private static final int EMPLOYEES = 50;
+    private static final long WARMUP_MILLIS = 5000;
+    private static final long MEASURE_MILLIS = 5000;
+
+    private final EmployeeFaker faker = new EmployeeFaker();
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        List<Result> platform = run("platform", false);
+        platform.forEach(result -> result.print("platform"));
+
+        assumeTrue(Runtime.version().feature() >= 21, "virtual threads need Java 21");
+        List<Result> virtual = run("virtual", true);
+        virtual.forEach(result -> result.print("virtual"));
+        assertThat(virtual).allSatisfy(result -> assertThat(result.errors()).isZero());
+    }
+
+    private List<Result> run(String name, boolean virtualThreads) throws Exception {
+        String[] args = {
+                "--spring.datasource.url=jdbc:h2:mem:virtual-threads-" + name,
+                "--server.port=0",
+                "--server.tomcat.max-connections=" + (CLIENTS[CLIENTS.length - 1] * 2),
+                "--server.tomcat.accept-count=" + CLIENTS[CLIENTS.length - 1],
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--account.security.password.strength=4",
+                "--account.security.rate-limit.enabled=false",
+                "--account.security.events.spill-file=./build/benchmarks/virtual-threads-events.ndjson"
+        };
+        // command line arguments, so that they take precedence over application.properties
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(AccountServiceApplication.class).run(args)) {
+            HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build();
+            String base = "http://localhost:%d".formatted(((WebServerApplicationContext) context).getWebServer().getPort());
+            TestRestTemplate restTemplate = new TestRestTemplate();
+
+            Employee admin = faker.generateEmployee();
+            restTemplate.postForEntity(base + "/api/auth/signup", admin, String.class);
+            Employee user = faker.generateEmployee();
+            restTemplate.postForEntity(base + "/api/auth/signup", user, String.class);
+            for (int i = 2; i < EMPLOYEES; i++) {
+                restTemplate.postForEntity(base + "/api/auth/signup", faker.generateEmployee(), String.class);
+            }
+            String adminToken = token(restTemplate, base, admin);
+            String userToken = token(restTemplate, base, user);
+
+            List<Result> results = new ArrayList<>();
+            for (int clients : CLIENTS) {
+                if (!enoughFileDescriptors(clients)) {
+                    System.out.printf("%-8s clients=%d skipped, needs more than %d file descriptors%n", name, clients, clients * 2);
+                    continue;
+                }
+                results.add(measure(client, URI.create(base + "/api/empl/payment"), userToken, clients));
+                results.add(measure(client, URI.create(base + "/api/admin/user"), adminToken, clients));
+            }
+            return results;
+        }
+    }
+
+    private static Result measure(HttpClient client, URI uri, String token, int clients) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .timeout(Duration.ofMinutes(1))
+                .build();
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.MILLISECONDS.toNanos(WARMUP_MILLIS);
+        long end = measureFrom + TimeUnit.MILLISECONDS.toNanos(MEASURE_MILLIS);
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        CountDownLatch finished = new CountDownLatch(clients);
+        for (int c = 0; c < clients; c++) {
+            send(client, request, measureFrom, end, completed, errors, finished);
+        }
+        finished.await();
+        return new Result(uri.getPath(), clients, completed.get() * 1000.0 / MEASURE_MILLIS, errors.get());
+    }
+
+    /* One client: sends the next request when the previous one completes, until the measurement ends */
+    private static void send(HttpClient client, HttpRequest request, long measureFrom, long end,
+                             AtomicInteger completed, AtomicInteger errors, CountDownLatch finished) {
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+            long now = System.nanoTime();
+            if (now >= measureFrom && now < end) {
+                if (failure == null && response.statusCode() == 200) {
+                    completed.incrementAndGet();
+                } else {
+                    errors.incrementAndGet();
+                }
+            }
+            if (now < end) {
+                send(client, request, measureFrom, end, completed, errors, finished);
+            } else {
+                finished.countDown();
+            }
+        });
+    }
+
+    private static String token(TestRestTemplate restTemplate, String base, Employee employee) {
+        HttpHeaders basic = new HttpHeaders();
+        basic.setBasicAuth(employee.getEmail(), employee.getPassword());
+        TokenResponse token = restTemplate.postForEntity(base + "/api/auth/token", new HttpEntity<>(basic), TokenResponse.class).getBody();
+        assertThat(token).isNotNull();
+        return token.token();
+    }
+
+    private static boolean enoughFileDescriptors(int clients) {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        return !(os instanceof UnixOperatingSystemMXBean unix) || unix.getMaxFileDescriptorCount() > clients * 2L + 1000;
+    }
+
+    private record Result(String path, int clients, double throughput, int errors) {
+        void print(String name) {
+            System.out.printf("%-8s %-18s clients=%5d throughput=%.1f req/s errors=%d%n", name, path, clients, throughput, errors);
+        }
+    }
+}
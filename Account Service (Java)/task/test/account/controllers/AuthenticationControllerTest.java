@@ -2,6 +2,7 @@ package account.controllers;
 
 import account.models.Employee;
 import account.models.LoginInformation;
+import account.models.Role;
 import account.models.SecurityEvent;
 import account.repositories.EmployeeRepository;
 import account.repositories.LoginInformationRepository;
@@ -10,7 +11,11 @@ import account.requestBodies.NewPasswordRequest;
 import account.responses.HttpErrorResponse;
 import account.responses.PasswordChangedResponse;
 import account.responses.SignupResponse;
+import account.responses.TokenResponse;
 import account.services.EmployeeService;
+import account.services.LoginAttemptCounter;
+import account.services.LoginRateLimiter;
+import account.services.SecurityEventService;
 import account.utils.EmployeeFaker;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -29,7 +34,13 @@ import java.util.List;
 import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
-@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:test",
+        // each failure costs a full BCrypt verification, the buckets must not refill meanwhile
+        "account.security.rate-limit.refill-period=1h",
+        // failed attempts are flushed by the tests themselves
+        "account.security.login-attempts.flush-interval=1h"
+})
 class AuthenticationControllerTest {
 
     @LocalServerPort
@@ -44,9 +55,15 @@ class AuthenticationControllerTest {
 
     @Autowired
     private SecurityEventRepository securityEventRepository;
+    @Autowired
+    private SecurityEventService securityEventService;
 
     @Autowired
     private EmployeeService employeeService;
+    @Autowired
+    private LoginAttemptCounter loginAttemptCounter;
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
 
     @Autowired
     private EmployeeFaker faker;
@@ -59,7 +76,9 @@ class AuthenticationControllerTest {
     void tearDown() {
         employeeRepository.deleteAll();
         loginInformationRepository.deleteAll();
+        securityEventService.flush();
         securityEventRepository.deleteAll();
+        loginRateLimiter.clear();
     }
 
     @Test
@@ -96,6 +115,7 @@ class AuthenticationControllerTest {
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
 
+        securityEventService.flush();
         SecurityEvent securityEvent = securityEventRepository.findAll().iterator().next();
 
         assertThat(securityEvent.getId()).isGreaterThan(0);
@@ -108,8 +128,8 @@ class AuthenticationControllerTest {
     @Test
     void willThrowExceptionIfDuplicatedEmail() throws MalformedURLException {
         String url = "http://localhost:%d/api/auth/signup".formatted(port);
-        Employee employee1 = new Employee("mary", "p", "mary@acme.com", "passwordabcdefghl", "USER");
-        Employee employee2 = new Employee("mary", "j", "mary@acme.com", "passwordabcdefghl", "USER");
+        Employee employee1 = new Employee("mary", "p", "mary@acme.com", "passwordabcdefghl", Role.USER);
+        Employee employee2 = new Employee("mary", "j", "mary@acme.com", "passwordabcdefghl", Role.USER);
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -177,7 +197,7 @@ class AuthenticationControllerTest {
         final String originalPassword = "passwordabcdefghl";
         String newPassword = "password12345678";
 
-        Employee employee = new Employee("John", "Doe", email, originalPassword, "USER");
+        Employee employee = new Employee("John", "Doe", email, originalPassword, Role.USER);
         employeeService.register(employee);
 
         HttpHeaders headers = new HttpHeaders();
@@ -206,7 +226,7 @@ class AuthenticationControllerTest {
         final String originalPassword = "passwordabcdefghl";
         String newPassword = "password12345678";
 
-        Employee employee = new Employee("John", "Doe", email, originalPassword, "USER");
+        Employee employee = new Employee("John", "Doe", email, originalPassword, Role.USER);
         employeeService.register(employee);
 
         HttpHeaders headers = new HttpHeaders();
@@ -222,6 +242,7 @@ class AuthenticationControllerTest {
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
 
+        securityEventService.flush();
         SecurityEvent securityEvent = securityEventRepository.findAll().iterator().next();
 
         assertThat(securityEvent.getId()).isGreaterThan(0);
@@ -239,7 +260,7 @@ class AuthenticationControllerTest {
         final String originalPassword = "passwordabcdefghl";
         String newPassword = "password";
 
-        Employee employee = new Employee("John", "Doe", email, originalPassword, "USER");
+        Employee employee = new Employee("John", "Doe", email, originalPassword, Role.USER);
         employeeService.register(employee);
 
         HttpHeaders headers = new HttpHeaders();
@@ -295,7 +316,7 @@ class AuthenticationControllerTest {
         final String email = "john@acme.com";
         final String password = "passwordabcdefghl";
 
-        Employee administrator = new Employee("John", "Doe", email, password, "USER");
+        Employee administrator = new Employee("John", "Doe", email, password, Role.USER);
         Employee employee = faker.generateEmployee();
 
         employeeService.register(administrator);
@@ -316,7 +337,10 @@ class AuthenticationControllerTest {
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(loginAttemptCounter.getFailures(employee.getEmail())).isEqualTo(4);
 
+        // failed attempts are written in the background
+        loginAttemptCounter.flush();
         Employee found = employeeRepository.findById(employee.getId()).orElseThrow();
         assertThat(found.getLoginInformation().getLoginAttempts()).isEqualTo(4);
         assertThat(found.getLoginInformation().isLocked()).isFalse();
@@ -329,7 +353,7 @@ class AuthenticationControllerTest {
         final String email = "john@acme.com";
         final String password = "passwordabcdefghl";
 
-        Employee administrator = new Employee("John", "Doe", email, password, "USER");
+        Employee administrator = new Employee("John", "Doe", email, password, Role.USER);
         Employee employee = faker.generateEmployee();
         employeeService.register(administrator);
         employeeService.register(employee);
@@ -354,4 +378,93 @@ class AuthenticationControllerTest {
         assertThat(found.getLoginInformation().getLoginAttempts()).isGreaterThan(4);
         assertThat(found.getLoginInformation().isLocked()).isTrue();
     }
-}
\ No newline at end of file
+
+    @Test
+    void willRejectLoginsOverRateLimitBeforeCheckingPassword() {
+        // Arrange
+        Employee administrator = faker.generateEmployee();
+        Employee employee = faker.generateEmployee();
+        String password = employee.getPassword();
+        employeeService.register(administrator);
+        employeeService.register(employee);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBasicAuth("unknown@acme.com", "mistyped_password");
+        HttpEntity<Void> request = new HttpEntity<>(headers);
+        String url = "http://localhost:%d/api/empl/payment".formatted(port);
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            assertThat(restTemplate.exchange(url, HttpMethod.GET, request, HttpErrorResponse.class).getStatusCode())
+                    .isEqualTo(HttpStatus.UNAUTHORIZED);
+            // drops the counter of the unknown user, so only the rate limiter reports the attack
+            loginAttemptCounter.flush();
+        }
+        ResponseEntity<HttpErrorResponse> rejected = restTemplate.exchange(url, HttpMethod.GET, request, HttpErrorResponse.class);
+        headers.setBasicAuth(employee.getEmail(), password);
+        ResponseEntity<String> other = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        // Assert
+        assertThat(rejected.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(rejected.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isNotBlank();
+        assertThat(rejected.getBody()).isNotNull();
+        assertThat(rejected.getBody().message()).isEqualTo("Too many failed login attempts");
+        assertThat(other.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        securityEventService.flush();
+        List<SecurityEvent> events = securityEventRepository.findAll();
+        assertThat(events).filteredOn(event -> event.getAction().equals("BRUTE_FORCE")).hasSize(1);
+    }
+
+    @Test
+    void canAuthenticateWithIssuedToken() {
+        // Arrange
+        Employee administrator = faker.generateEmployee();
+        Employee employee = faker.generateEmployee();
+        String password = employee.getPassword();
+        employeeService.register(administrator);
+        employeeService.register(employee);
+
+        // Act
+        String token = issueToken(employee.getEmail(), password);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        ResponseEntity<String> response = restTemplate.exchange("http://localhost:%d/api/empl/payment".formatted(port), HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void cannotUseTokenAfterPasswordChanged() {
+        // Arrange
+        Employee administrator = faker.generateEmployee();
+        Employee employee = faker.generateEmployee();
+        String password = employee.getPassword();
+        employeeService.register(administrator);
+        employeeService.register(employee);
+        String token = issueToken(employee.getEmail(), password);
+
+        // Act
+        employeeService.updatePassword(employee.getEmail(), "password12345678");
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        ResponseEntity<HttpErrorResponse> response = restTemplate.exchange("http://localhost:%d/api/empl/payment".formatted(port), HttpMethod.GET, new HttpEntity<>(headers), HttpErrorResponse.class);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().message()).isEqualTo("Invalid or expired token");
+    }
+
+    private String issueToken(String email, String password) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBasicAuth(email, password);
+        ResponseEntity<TokenResponse> response = restTemplate.postForEntity("http://localhost:%d/api/auth/token".formatted(port), new HttpEntity<>(headers), TokenResponse.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().type()).isEqualTo("Bearer");
+        return response.getBody().token();
+    }
+}
@@ -4,6 +4,8 @@ import account.dtos.EmployeeDTO;
 import account.exceptions.AdminDeletionException;
 import account.exceptions.EmployeeNotFoundException;
 import account.models.Employee;
+import account.models.Role;
+import account.requestBodies.EmployeeSort;
 import account.requestBodies.UpdateRoleRequest;
 import account.responses.RemoveEmployeeResponse;
 import account.services.EmployeeService;
@@ -120,6 +122,46 @@ class EmployeeControllerTest {
                 });
     }
 
+    @Test
+    @WithMockUser(roles = {"ADMINISTRATOR"})
+    void canGetEmployeePageWithNextCursor() throws Exception {
+        List<EmployeeDTO> page = Stream.generate(() -> faker.generateEmployeeWithId())
+                .limit(2)
+                .map(e -> modelMapper.map(e, EmployeeDTO.class))
+                .toList();
+        when(employeeService.getEmployees("USER", EmployeeSort.EMAIL, "alice@acme.com", 2)).thenReturn(page);
+
+        mockMvc.perform(get("/api/admin/user")
+                        .param("role", "USER")
+                        .param("sort", "email")
+                        .param("after", "alice@acme.com")
+                        .param("limit", "2"))
+                .andExpectAll(
+                        status().isOk(),
+                        header().string(SecurityController.NEXT_CURSOR_HEADER, page.get(1).getEmail()),
+                        jsonPath("$.length()").value(2),
+                        jsonPath("$[0].email").value(page.get(0).getEmail())
+                );
+
+        when(employeeService.getEmployees(null, EmployeeSort.ID, null, 3)).thenReturn(page);
+        mockMvc.perform(get("/api/admin/user").param("limit", "3"))
+                .andExpectAll(
+                        status().isOk(),
+                        header().doesNotExist(SecurityController.NEXT_CURSOR_HEADER)
+                );
+    }
+
+    @Test
+    @WithMockUser(roles = {"ADMINISTRATOR"})
+    void cannotGetEmployeePageWithInvalidSortOrLimit() throws Exception {
+        mockMvc.perform(get("/api/admin/user").param("sort", "name").param("limit", "10"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/admin/user").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/admin/user").param("limit", String.valueOf(EmployeeController.MAX_PAGE_SIZE + 1)))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @WithMockUser(roles = {"ADMINISTRATOR"})
     void canDeleteEmployee() throws Exception {
@@ -191,11 +233,11 @@ class EmployeeControllerTest {
     @WithMockUser(roles = {"ADMINISTRATOR"})
     void canUpdateRole() throws Exception {
         Employee employee = faker.generateEmployeeWithId();
-        String newRole = "SOME_RANDOM_NEW_ROLE";
+        Role newRole = Role.ACCOUNTANT;
         employee.addRole(newRole);
         UpdateRoleRequest requestBody = UpdateRoleRequest.builder()
                 .user(employee.getEmail())
-                .role(newRole)
+                .role(newRole.name())
                 .operation("GRANT")
                 .build();
 
@@ -220,7 +262,7 @@ class EmployeeControllerTest {
 
         EmployeeDTO parsed = objectMapper.readValue(content, EmployeeDTO.class);
 
-        assertThat(parsed.getRoles()).contains(newRole);
+        assertThat(parsed.getRoles()).contains(newRole.name());
     }
 
 
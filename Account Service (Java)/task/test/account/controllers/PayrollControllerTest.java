@@ -1,6 +1,7 @@
 package account.controllers;
 
 import account.dtos.PayrollDTO;
+import account.exceptions.PeriodRangeNotValidException;
 import account.requestBodies.PayrollRequest;
 import account.models.Payroll;
 import account.services.PayrollService;
@@ -21,6 +22,7 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 import java.net.URI;
+import java.time.YearMonth;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -85,7 +87,7 @@ class PayrollControllerTest {
 
     @Test
     void cannotPostPayrollDueToIncorrectFormat() throws Exception {
-        Payroll payroll = Payroll.builder().period("13-2024").salary(-1L).build();
+        PayrollRequest payroll = PayrollRequest.builder().period("13-2024").salary(-1L).build();
 
         mockMvc.perform(post("/api/acct/payments")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -122,8 +124,8 @@ class PayrollControllerTest {
         mockMvc.perform(get(uri))
                 .andExpect(status().isBadRequest());
 
-        verify(payrollService, times(0)).getPayroll(anyString(), anyString());
-        verify(payrollService, times(0)).getPayroll(anyString());
+        verify(payrollService, times(0)).getPayrollJson(anyString(), any(YearMonth.class));
+        verify(payrollService, times(0)).getPayrollJson(anyString(), any(), any());
     }
 
     @Test
@@ -131,15 +133,15 @@ class PayrollControllerTest {
     void canGetPayrollAuthenticatedWithPeriod() throws Exception {
         URI uri = new URIBuilder("/api/empl/payment").addParameter("period", "05-2021").build();
 
-        when(payrollService.getPayroll(anyString(), anyString())).thenReturn(payrollDTO);
-        when(payrollService.getPayroll(anyString())).thenReturn(List.of(payrollDTO));
+        when(payrollService.getPayrollJson(anyString(), any(YearMonth.class))).thenReturn(convertJsonToBytes(payrollDTO));
+        when(payrollService.getPayrollJson(anyString(), any(), any())).thenReturn(convertJsonToBytes(List.of(payrollDTO)));
 
         mockMvc.perform(get(uri))
                 .andExpect(status().isOk())
                 .andExpect(content().json(convertJsonToString(payrollDTO)));
 
-        verify(payrollService, times(1)).getPayroll(anyString(), anyString());
-        verify(payrollService, times(0)).getPayroll(anyString());
+        verify(payrollService, times(1)).getPayrollJson("johndoe@acme.com", YearMonth.of(2021, 5));
+        verify(payrollService, times(0)).getPayrollJson(anyString(), any(), any());
     }
 
     @Test
@@ -147,18 +149,59 @@ class PayrollControllerTest {
     void canGetPayrollsAuthenticatedWithoutPeriod() throws Exception {
         URI uri = new URIBuilder("/api/empl/payment").build();
 
-        when(payrollService.getPayroll(anyString(), anyString())).thenReturn(payrollDTO);
-        when(payrollService.getPayroll(anyString())).thenReturn(List.of(payrollDTO));
+        when(payrollService.getPayrollJson(anyString(), any(YearMonth.class))).thenReturn(convertJsonToBytes(payrollDTO));
+        when(payrollService.getPayrollJson(anyString(), any(), any())).thenReturn(convertJsonToBytes(List.of(payrollDTO)));
 
         mockMvc.perform(get(uri))
                 .andExpect(status().isOk())
                 .andExpect(content().json(convertJsonToString(List.of(payrollDTO))));
 
-        verify(payrollService, times(0)).getPayroll(anyString(), anyString());
-        verify(payrollService, times(1)).getPayroll(anyString());
+        verify(payrollService, times(0)).getPayrollJson(anyString(), any(YearMonth.class));
+        verify(payrollService, times(1)).getPayrollJson("johndoe@acme.com", null, null);
 
     }
 
+    @Test
+    @WithMockUser(username = "johndoe@acme.com")
+    void canGetPayrollsAuthenticatedBetweenPeriods() throws Exception {
+        URI uri = new URIBuilder("/api/empl/payment").addParameter("from", "01-2021").addParameter("to", "06-2021").build();
+
+        when(payrollService.getPayrollJson(anyString(), any(), any())).thenReturn(convertJsonToBytes(List.of(payrollDTO)));
+
+        mockMvc.perform(get(uri))
+                .andExpect(status().isOk())
+                .andExpect(content().json(convertJsonToString(List.of(payrollDTO))));
+
+        verify(payrollService, times(1)).getPayrollJson("johndoe@acme.com", YearMonth.of(2021, 1), YearMonth.of(2021, 6));
+    }
+
+    @Test
+    @WithMockUser(username = "johndoe@acme.com")
+    void cannotGetPayrollsBetweenMalformedPeriods() throws Exception {
+        URI uri = new URIBuilder("/api/empl/payment").addParameter("from", "2021-01").build();
+
+        mockMvc.perform(get(uri))
+                .andExpect(status().isBadRequest());
+
+        verify(payrollService, times(0)).getPayrollJson(anyString(), any(), any());
+    }
+
+    @Test
+    @WithMockUser(username = "johndoe@acme.com")
+    void cannotGetPayrollsFromAfterTo() throws Exception {
+        URI uri = new URIBuilder("/api/empl/payment").addParameter("from", "06-2021").addParameter("to", "01-2021").build();
+
+        when(payrollService.getPayrollJson(anyString(), any(), any()))
+                .thenThrow(new PeriodRangeNotValidException("Period from must not be after to"));
+
+        mockMvc.perform(get(uri))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static byte[] convertJsonToBytes(Object object) throws JsonProcessingException {
+        return new ObjectMapper().writeValueAsBytes(object);
+    }
+
     private static String convertJsonToString(Object object) throws JsonProcessingException {
         ObjectMapper objectMapper = new ObjectMapper();
         return objectMapper.writeValueAsString(object);
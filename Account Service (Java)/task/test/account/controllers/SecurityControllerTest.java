@@ -1,6 +1,7 @@
 package account.controllers;
 
 import account.models.SecurityEvent;
+import account.requestBodies.SecurityEventFilter;
 import account.services.SecurityEventService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,13 +10,19 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.hamcrest.Matchers.matchesPattern;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -32,7 +39,7 @@ class SecurityControllerTest {
     @WithMockUser(roles = "USER")
     void cannotGetSecurityEventsByUser() throws Exception {
         SecurityEvent event = new SecurityEvent("ACCESS_DENIED", "john@acme.com", "john@acme.com", "/api/random/path");
-        when(securityEventService.getSecurityEvents()).thenReturn(List.of(event));
+        streamEvents(List.of(event));
 
         mockMvc.perform(get("/api/security/events"))
                 .andExpect(status().isForbidden());
@@ -42,10 +49,65 @@ class SecurityControllerTest {
     @WithMockUser(roles = "AUDITOR")
     void canGetSecurityEventsByAuditor() throws Exception {
         SecurityEvent event = new SecurityEvent("ACCESS_DENIED", "john@acme.com", "john@acme.com", "/api/random/path");
-        when(securityEventService.getSecurityEvents()).thenReturn(List.of(event));
+        streamEvents(List.of(event));
 
-        mockMvc.perform(get("/api/security/events"))
-                .andExpect(status().isOk());
+        MvcResult result = mockMvc.perform(get("/api/security/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].action").value("ACCESS_DENIED"))
+                .andExpect(jsonPath("$[0].subject").value("john@acme.com"));
+    }
+
+    @Test
+    @WithMockUser(roles = "AUDITOR")
+    void canStreamSecurityEventsAsNdjson() throws Exception {
+        streamEvents(List.of(
+                new SecurityEvent("LOGIN_FAILED", "Anonymous", "john@acme.com", "/api/empl/payment"),
+                new SecurityEvent("BRUTE_FORCE", "john@acme.com", "john@acme.com", "/api/empl/payment")
+        ));
+
+        MvcResult result = mockMvc.perform(get("/api/security/events").accept(SecurityController.NDJSON_VALUE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SecurityController.NDJSON_VALUE))
+                .andExpect(content().string(matchesPattern("(\\{[^\\n]*\"action\":\"\\w+\"[^\\n]*}\\n){2}")));
+    }
+
+    @Test
+    @WithMockUser(roles = "AUDITOR")
+    void canGetSecurityEventsPageWithFilters() throws Exception {
+        SecurityEvent event = new SecurityEvent(42L, LocalDate.of(2024, 5, 1), "LOGIN_FAILED", "Anonymous", "john@acme.com", "/api/empl/payment");
+        SecurityEventFilter filter = new SecurityEventFilter("LOGIN_FAILED", null, LocalDate.of(2024, 5, 1), null);
+        when(securityEventService.getSecurityEvents(filter, 10L, 1)).thenReturn(List.of(event));
+
+        mockMvc.perform(get("/api/security/events")
+                        .param("action", "LOGIN_FAILED")
+                        .param("from", "2024-05-01")
+                        .param("after", "10")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(SecurityController.NEXT_CURSOR_HEADER, "42"))
+                .andExpect(jsonPath("$[0].id").value(42));
+    }
+
+    @Test
+    @WithMockUser(roles = "AUDITOR")
+    void cannotGetPageLargerThanLimit() throws Exception {
+        mockMvc.perform(get("/api/security/events").param("limit", "100000"))
+                .andExpect(status().isBadRequest());
+    }
 
+    @SuppressWarnings("unchecked")
+    private void streamEvents(List<SecurityEvent> events) {
+        doAnswer(invocation -> {
+            events.forEach(invocation.getArgument(2, Consumer.class));
+            return null;
+        }).when(securityEventService).forEachSecurityEvent(any(), anyLong(), any());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,72 @@
+package account.dtos;
+
+import account.models.Employee;
+import account.models.Payroll;
+import account.models.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class DtoMapperTest {
+    @Autowired
+    private ModelMapper modelMapper;
+    @Autowired
+    private DtoMapper dtoMapper;
+
+    private DtoMapper reflective;
+    private final DirectDtoMapper direct = new DirectDtoMapper();
+    private Employee employee;
+
+    @BeforeEach
+    void setUp() {
+        reflective = new ModelMapperDtoMapper(modelMapper);
+        employee = Employee.builder()
+                .id(7L)
+                .name("John")
+                .lastname("Doe")
+                .email("johndoe@acme.com")
+                .password("secretpassword")
+                .roles(Role.ACCOUNTANT, Role.USER)
+                .build();
+    }
+
+    @Test
+    void willUseDirectMapperByDefault() {
+        assertThat(dtoMapper).isInstanceOf(DirectDtoMapper.class);
+    }
+
+    @Test
+    void canMapPayrollLikeModelMapper() {
+        for (long salary : new long[]{0L, 5L, 100L, 123456L, 123400L, 123405L, 99999999L}) {
+            for (int month = 1; month <= 12; month++) {
+                Payroll payroll = Payroll.builder().period(YearMonth.of(2024, month)).salary(salary).employee(employee).build();
+
+                assertThat(direct.toPayrollDTO(payroll)).isEqualTo(reflective.toPayrollDTO(payroll));
+            }
+        }
+    }
+
+    @Test
+    void canMapEmployeeLikeModelMapper() {
+        assertThat(direct.toEmployeeDTO(employee)).isEqualTo(reflective.toEmployeeDTO(employee));
+        assertThat(direct.toSignupResponse(employee)).isEqualTo(reflective.toSignupResponse(employee));
+
+        Employee unsaved = Employee.builder().name("Mary").lastname("Doe").email("marydoe@acme.com").build();
+        assertThat(direct.toEmployeeDTO(unsaved)).isEqualTo(reflective.toEmployeeDTO(unsaved));
+        assertThat(direct.toSignupResponse(unsaved)).isEqualTo(reflective.toSignupResponse(unsaved));
+    }
+
+    @Test
+    void willCopyRoles() {
+        EmployeeDTO dto = direct.toEmployeeDTO(employee);
+
+        assertThat(dto.getRoles()).containsExactly("ACCOUNTANT", "USER");
+    }
+}
@@ -0,0 +1,155 @@
+package account.migrations;
+
+import account.models.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DatabaseMigrationTest {
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:migration-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    void willCreateSequencesOnFreshDatabase() {
+        new DatabaseMigration(dataSource).afterPropertiesSet();
+
+        assertThat(nextValue("payrolls_seq")).isEqualTo(1);
+        assertThat(nextValue("payrolls_seq")).isEqualTo(1 + DatabaseMigration.ID_ALLOCATION_SIZE);
+    }
+
+    @Test
+    void willRestartSequencesAboveIdsFromIdentityColumns() {
+        jdbcTemplate.execute("CREATE TABLE payrolls (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, employee_id BIGINT, period VARCHAR(255))");
+        jdbcTemplate.execute("INSERT INTO payrolls (employee_id, period) SELECT X, '01-2024' FROM SYSTEM_RANGE(1, 120)");
+
+        new DatabaseMigration(dataSource).afterPropertiesSet();
+
+        // the pooled optimizer uses the block (value - allocation size, value]
+        long blockStart = nextValue("payrolls_seq") - DatabaseMigration.ID_ALLOCATION_SIZE + 1;
+        assertThat(blockStart).isGreaterThan(120);
+    }
+
+    @Test
+    void willConvertPayrollPeriodsToMonths() {
+        jdbcTemplate.execute("CREATE TABLE payrolls (id BIGINT PRIMARY KEY, employee_id BIGINT, period VARCHAR(255))");
+        jdbcTemplate.execute("INSERT INTO payrolls VALUES (1, 1, '01-2024'), (2, 1, '12-2023'), (3, 2, '01-2024')");
+
+        new DatabaseMigration(dataSource).afterPropertiesSet();
+        new DatabaseMigration(dataSource).afterPropertiesSet();
+
+        assertThat(jdbcTemplate.queryForList("SELECT period FROM payrolls ORDER BY id", Integer.class))
+                .containsExactly(2024 * 12, 2023 * 12 + 11, 2024 * 12);
+        assertThatThrownBy(() -> jdbcTemplate.update("INSERT INTO payrolls VALUES (4, 1, ?)", 2024 * 12))
+                .isInstanceOf(DuplicateKeyException.class);
+    }
+
+    @Test
+    void willNotStartWithUnconvertiblePeriods() {
+        jdbcTemplate.execute("CREATE TABLE payrolls (id BIGINT PRIMARY KEY, employee_id BIGINT, period VARCHAR(255))");
+        jdbcTemplate.execute("INSERT INTO payrolls VALUES (1, 1, '01-2024'), (2, 1, '00-2024'), (3, 2, '13-2024')");
+
+        assertThatThrownBy(() -> new DatabaseMigration(dataSource).afterPropertiesSet())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("[2, 3]");
+        assertThat(jdbcTemplate.queryForList("SELECT period FROM payrolls ORDER BY id", String.class))
+                .containsExactly("01-2024", "00-2024", "13-2024");
+    }
+
+    @Test
+    void willNotStartWithDuplicatedPeriods() {
+        jdbcTemplate.execute("CREATE TABLE payrolls (id BIGINT PRIMARY KEY, employee_id BIGINT, period VARCHAR(255))");
+        jdbcTemplate.execute("INSERT INTO payrolls VALUES (1, 1, '01-2024'), (2, 1, '01-2024'), (3, 2, '01-2024')");
+
+        assertThatThrownBy(() -> new DatabaseMigration(dataSource).afterPropertiesSet())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("[1 01-2024]");
+        assertThat(jdbcTemplate.queryForList("SELECT period FROM payrolls ORDER BY id", String.class))
+                .containsExactly("01-2024", "01-2024", "01-2024");
+
+        jdbcTemplate.update("DELETE FROM payrolls WHERE id = 2");
+        new DatabaseMigration(dataSource).afterPropertiesSet();
+
+        assertThat(jdbcTemplate.queryForList("SELECT period FROM payrolls ORDER BY id", Integer.class))
+                .containsExactly(2024 * 12, 2024 * 12);
+    }
+
+    @Test
+    void willFinishPeriodConversionStoppedBeforeRename() {
+        jdbcTemplate.execute("CREATE TABLE payrolls (id BIGINT PRIMARY KEY, employee_id BIGINT, period_months INTEGER NOT NULL)");
+        jdbcTemplate.execute("ALTER TABLE payrolls ADD CONSTRAINT uk_payrolls_employee_period UNIQUE (employee_id, period_months)");
+        jdbcTemplate.execute("INSERT INTO payrolls VALUES (1, 1, 24288)");
+
+        new DatabaseMigration(dataSource).afterPropertiesSet();
+
+        assertThat(jdbcTemplate.queryForList("SELECT period FROM payrolls", Integer.class)).containsExactly(24288);
+        assertThatThrownBy(() -> jdbcTemplate.update("INSERT INTO payrolls VALUES (2, 1, 24288)"))
+                .isInstanceOf(DuplicateKeyException.class);
+    }
+
+    @Test
+    void willConvertRolesToMask() {
+        jdbcTemplate.execute("CREATE TABLE employees (id BIGINT PRIMARY KEY)");
+        jdbcTemplate.execute("CREATE TABLE employee_roles (employee_id BIGINT, role VARCHAR(255))");
+        jdbcTemplate.execute("INSERT INTO employees (id) VALUES (1), (2), (3)");
+        jdbcTemplate.execute("INSERT INTO employee_roles VALUES (1, 'ADMINISTRATOR'), (2, 'USER'), (2, 'ACCOUNTANT'), (2, 'USER')");
+
+        new DatabaseMigration(dataSource).afterPropertiesSet();
+        new DatabaseMigration(dataSource).afterPropertiesSet();
+
+        assertThat(jdbcTemplate.queryForList("SELECT roles FROM employees ORDER BY id", Integer.class))
+                .containsExactly(Role.ADMINISTRATOR.bit(), Role.USER.bit() | Role.ACCOUNTANT.bit(), 0);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE UPPER(TABLE_NAME) = 'EMPLOYEE_ROLES'", Integer.class))
+                .isZero();
+    }
+
+    @Test
+    void willLowerCaseEmails() {
+        jdbcTemplate.execute("CREATE TABLE employees (id BIGINT PRIMARY KEY, email VARCHAR(255) UNIQUE)");
+        jdbcTemplate.execute("INSERT INTO employees VALUES (1, 'JohnDoe@acme.com'), (2, 'marydoe@acme.com')");
+
+        new DatabaseMigration(dataSource).afterPropertiesSet();
+
+        assertThat(jdbcTemplate.queryForList("SELECT email FROM employees ORDER BY id", String.class))
+                .containsExactly("johndoe@acme.com", "marydoe@acme.com");
+    }
+
+    @Test
+    void willAddLoginInformationVersion() {
+        jdbcTemplate.execute("CREATE TABLE login_information (id BIGINT PRIMARY KEY, login_attempts INT)");
+        jdbcTemplate.execute("INSERT INTO login_information VALUES (1, 3)");
+
+        new DatabaseMigration(dataSource).afterPropertiesSet();
+        new DatabaseMigration(dataSource).afterPropertiesSet();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT version FROM login_information WHERE id = 1", Long.class)).isZero();
+    }
+
+    @Test
+    void canRunOnEveryStart() {
+        jdbcTemplate.execute("CREATE TABLE employees (id BIGINT PRIMARY KEY)");
+        jdbcTemplate.execute("INSERT INTO employees (id) VALUES (7)");
+
+        new DatabaseMigration(dataSource).afterPropertiesSet();
+        new DatabaseMigration(dataSource).afterPropertiesSet();
+
+        assertThat(nextValue("employees_seq")).isEqualTo(7 + DatabaseMigration.ID_ALLOCATION_SIZE);
+    }
+
+    private long nextValue(String sequence) {
+        return jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR " + sequence, Long.class);
+    }
+}
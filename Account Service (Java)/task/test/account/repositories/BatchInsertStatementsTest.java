@@ -0,0 +1,90 @@
+package account.repositories;
+
+import account.models.Employee;
+import account.models.Role;
+import account.models.SecurityEvent;
+import account.requestBodies.PayrollRequest;
+import account.services.PayrollService;
+import account.services.SecurityEventService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/* Counts the JDBC statements Hibernate prepares for bulk inserts, one per batch of hibernate.jdbc.batch_size rows */
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:batch-insert-statements",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "account.security.events.flush-interval=1h",
+        "account.security.events.batch-size=10000"
+})
+class BatchInsertStatementsTest {
+    private static final int ROWS = 1000;
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private PayrollService payrollService;
+    @Autowired
+    private SecurityEventService securityEventService;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DELETE FROM payrolls");
+        jdbcTemplate.execute("DELETE FROM information_security_events");
+    }
+
+    @Test
+    void willBatchPayrollInserts() {
+        Employee employee = employeeRepository.save(new Employee("John", "Doe", "johndoe@acme.com", "password123456789", Role.USER));
+        List<PayrollRequest> bodies = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            bodies.add(new PayrollRequest("%02d-%04d".formatted(i % 12 + 1, 2000 + i / 12), 100000L, employee.getEmail()));
+        }
+
+        statistics.clear();
+        payrollService.savePayrolls(bodies);
+        long statements = statistics.getPrepareStatementCount();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM payrolls", Long.class)).isEqualTo(ROWS);
+        assertThat(statements).as("statements for %d payrolls", ROWS).isLessThanOrEqualTo(2L * ROWS / BATCH_SIZE + 5);
+    }
+
+    @Test
+    void willBatchSecurityEventFlush() {
+        for (int i = 0; i < ROWS; i++) {
+            securityEventService.addEvent(new SecurityEvent("LOGIN_FAILED", "Anonymous", "user" + i, "/api/empl/payment"));
+        }
+
+        statistics.clear();
+        securityEventService.flush();
+        long statements = statistics.getPrepareStatementCount();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_security_events", Long.class)).isEqualTo(ROWS);
+        assertThat(statements).as("statements for %d security events", ROWS).isLessThanOrEqualTo(2L * ROWS / BATCH_SIZE + 5);
+    }
+}
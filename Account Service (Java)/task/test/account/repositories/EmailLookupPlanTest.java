@@ -0,0 +1,99 @@
+package account.repositories;
+
+import account.models.Employee;
+import account.models.LoginInformation;
+import account.models.Role;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * Runs the SQL that Hibernate generates for each email lookup through H2's EXPLAIN and checks that employees
+ * is reached through the index on email rather than scanned.
+ */
+@DataJpaTest
+class EmailLookupPlanTest {
+    private static final List<String> STATEMENTS = Collections.synchronizedList(new ArrayList<>());
+    private static final Pattern FINAL_TABLE = Pattern.compile("(?is).*FROM FINAL TABLE \\((.*)\\)\\s*");
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private LoginInformationRepository loginInformationRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TestConfiguration
+    static class RecordStatements {
+        @Bean
+        HibernatePropertiesCustomizer statementInspector() {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                STATEMENTS.add(sql);
+                return sql;
+            });
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        Employee employee = new Employee("John", "Doe", "johndoe@acme.com", "password123456789", Role.USER);
+        employee.setLoginInformation(new LoginInformation());
+        employeeRepository.save(employee);
+    }
+
+    @Test
+    void willFindByEmailWithIndex() {
+        assertThat(lastStatement(() -> employeeRepository.findByEmailIgnoreCase("JohnDoe@acme.com"))).satisfies(this::usesEmailIndex);
+        assertThat(lastStatement(() -> employeeRepository.existsByEmailIgnoreCase("JohnDoe@acme.com"))).satisfies(this::usesEmailIndex);
+        assertThat(lastStatement(() -> employeeRepository.findAllByLowerCaseEmailIn(Set.of("johndoe@acme.com")))).satisfies(this::usesEmailIndex);
+    }
+
+    @Test
+    void willUpdateLoginInformationWithIndex() {
+        assertThat(lastStatement(() -> loginInformationRepository.incrementLoginAttempts("johndoe@acme.com", 1))).satisfies(this::usesEmailIndex);
+        assertThat(lastStatement(() -> loginInformationRepository.resetLoginAttempts("johndoe@acme.com"))).satisfies(this::usesEmailIndex);
+        assertThat(lastStatement(() -> loginInformationRepository.lock("johndoe@acme.com"))).satisfies(this::usesEmailIndex);
+    }
+
+    private String lastStatement(Runnable query) {
+        STATEMENTS.clear();
+        query.run();
+        assertThat(STATEMENTS).isNotEmpty();
+        return STATEMENTS.get(STATEMENTS.size() - 1);
+    }
+
+    /*
+     * Binds every parameter as '1', H2 converts it where a number is expected and plans do not depend on values.
+     * EXPLAIN does not look into a FINAL TABLE, so the statement inside it is explained instead.
+     */
+    private void usesEmailIndex(String sql) {
+        Matcher deltaTable = FINAL_TABLE.matcher(sql);
+        if (deltaTable.matches()) {
+            sql = deltaTable.group(1);
+        }
+        Object[] parameters = new Object[(int) sql.chars().filter(c -> c == '?').count()];
+        Arrays.fill(parameters, "1");
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, parameters);
+
+        assertThat(plan).as(plan)
+                .doesNotContainIgnoringCase("EMPLOYEES.tableScan")
+                .containsPattern("(?i)/\\* PUBLIC\\.\\w+: EMAIL (=|IN)");
+    }
+}
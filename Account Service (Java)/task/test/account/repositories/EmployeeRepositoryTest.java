@@ -1,13 +1,19 @@
 package account.repositories;
 
 import account.models.Employee;
+import account.models.LoginInformation;
 import account.models.Payroll;
+import account.models.Role;
+import account.requestBodies.EmployeeSort;
 import account.utils.EmployeeFaker;
 import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -19,6 +25,7 @@ import java.util.stream.Stream;
 import static org.assertj.core.api.Assertions.assertThat;
 
 @DataJpaTest
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 public class EmployeeRepositoryTest {
     private final EmployeeRepository employeeRepository;
     private final PayrollRepository payrollRepository;
@@ -117,4 +124,85 @@ public class EmployeeRepositoryTest {
             assertThat(prev.getId()).isLessThan(curr.getId());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void willPageByIdOrEmailAfterCursor() {
+        List<Employee> employees = saveAll(
+                employee("carol@acme.com", Role.USER),
+                employee("alice@acme.com", Role.USER, Role.ACCOUNTANT),
+                employee("dave@acme.com", Role.ADMINISTRATOR),
+                employee("bob@acme.com", Role.AUDITOR));
+        long carol = employees.get(0).getId();
+        long alice = employees.get(1).getId();
+
+        assertThat(employeeRepository.findPage(null, EmployeeSort.ID, null, 2))
+                .extracting(Employee::getEmail)
+                .containsExactly("carol@acme.com", "alice@acme.com");
+        assertThat(employeeRepository.findPage(null, EmployeeSort.ID, String.valueOf(alice), 2))
+                .extracting(Employee::getEmail)
+                .containsExactly("dave@acme.com", "bob@acme.com");
+        assertThat(employeeRepository.findPage(null, EmployeeSort.EMAIL, null, 3))
+                .extracting(Employee::getEmail)
+                .containsExactly("alice@acme.com", "bob@acme.com", "carol@acme.com");
+        assertThat(employeeRepository.findPage(null, EmployeeSort.EMAIL, "carol@acme.com", 3))
+                .extracting(Employee::getEmail)
+                .containsExactly("dave@acme.com");
+        assertThat(employeeRepository.findPage(null, EmployeeSort.ID, String.valueOf(carol), 1).get(0).getRoles())
+                .containsExactly(Role.ACCOUNTANT, Role.USER);
+    }
+
+    @Test
+    void willPageOnlyEmployeesWithRole() {
+        saveAll(
+                employee("carol@acme.com", Role.USER),
+                employee("alice@acme.com", Role.USER, Role.ACCOUNTANT),
+                employee("dave@acme.com", Role.ADMINISTRATOR),
+                employee("bob@acme.com", Role.USER));
+
+        List<Employee> first = employeeRepository.findPage(Role.USER, EmployeeSort.ID, null, 2);
+        List<Employee> second = employeeRepository.findPage(Role.USER, EmployeeSort.ID, String.valueOf(first.get(1).getId()), 2);
+
+        assertThat(first).extracting(Employee::getEmail).containsExactly("carol@acme.com", "alice@acme.com");
+        // all roles of a matching employee are loaded, not only the one filtered on
+        assertThat(first.get(1).getRoles()).containsExactly(Role.ACCOUNTANT, Role.USER);
+        assertThat(second).extracting(Employee::getEmail).containsExactly("bob@acme.com");
+        assertThat(employeeRepository.findPage(Role.AUDITOR, EmployeeSort.EMAIL, null, 10)).isEmpty();
+    }
+
+    @Test
+    void willLoadPageWithSingleStatement() {
+        saveAll(
+                employee("carol@acme.com", Role.USER),
+                employee("alice@acme.com", Role.USER, Role.ACCOUNTANT),
+                employee("bob@acme.com", Role.AUDITOR));
+        Statistics statistics = entityManager.unwrap(Session.class).getSessionFactory().getStatistics();
+        statistics.clear();
+
+        List<Employee> page = employeeRepository.findPage(Role.USER, EmployeeSort.EMAIL, null, 10);
+        List<Employee> all = employeeRepository.findAllWithLoginInformation();
+        page.forEach(employee -> employee.getLoginInformation().getLoginAttempts());
+
+        assertThat(page).hasSize(2);
+        assertThat(all).hasSize(3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    private List<Employee> saveAll(Employee... employees) {
+        List<Employee> saved = new ArrayList<>();
+        employeeRepository.saveAll(List.of(employees)).forEach(saved::add);
+        entityManager.flush();
+        entityManager.clear();
+        return saved;
+    }
+
+    private static Employee employee(String email, Role... roles) {
+        return Employee.builder()
+                .name("name")
+                .lastname("lastname")
+                .email(email)
+                .password("password_of_" + email)
+                .roles(roles)
+                .loginInformation(new LoginInformation())
+                .build();
+    }
+}
@@ -0,0 +1,128 @@
+package account.repositories;
+
+import account.models.Employee;
+import account.models.LoginInformation;
+import account.models.Role;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/* Every statement commits on its own, as the flush of LoginAttemptCounter and the login paths do */
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:login-information",
+        "account.security.login-attempts.flush-interval=1h"
+})
+class LoginInformationRepositoryTest {
+    private static final String EMAIL = "johndoe@acme.com";
+
+    @Autowired
+    private LoginInformationRepository loginInformationRepository;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private long id;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        Employee employee = new Employee("John", "Doe", EMAIL, "password123456789", Role.USER);
+        employee.setLoginInformation(new LoginInformation());
+        id = employeeRepository.save(employee).getLoginInformation().getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        employeeRepository.deleteAll();
+    }
+
+    @Test
+    void willNotLoseConcurrentIncrements() throws Exception {
+        int threads = 8;
+        int increments = 250;
+        Set<Integer> totals = ConcurrentHashMap.newKeySet();
+        CountDownLatch gate = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(pool.submit(() -> {
+                    gate.await();
+                    for (int i = 0; i < increments; i++) {
+                        totals.add(transactionTemplate.execute(status -> loginInformationRepository.incrementLoginAttempts(EMAIL, 1)).orElseThrow());
+                    }
+                    return null;
+                }));
+            }
+            gate.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThat(loginInformationRepository.findById(id).orElseThrow().getLoginAttempts()).isEqualTo(threads * increments);
+        // every increment saw a total of its own, so exactly one of them sees any given limit
+        assertThat(totals).hasSize(threads * increments);
+    }
+
+    @Test
+    void willRejectStaleEntityAfterIncrement() {
+        LoginInformation stale = loginInformationRepository.findById(id).orElseThrow();
+
+        transactionTemplate.executeWithoutResult(status -> loginInformationRepository.incrementLoginAttempts(EMAIL, 3));
+        stale.setLocked(true);
+
+        assertThatThrownBy(() -> loginInformationRepository.save(stale)).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(loginInformationRepository.findById(id).orElseThrow())
+                .hasFieldOrPropertyWithValue("loginAttempts", 3)
+                .hasFieldOrPropertyWithValue("locked", false);
+    }
+
+    @Test
+    void canResetAndLockWithoutReadingTheRow() {
+        transactionTemplate.executeWithoutResult(status -> loginInformationRepository.incrementLoginAttempts(EMAIL, 5));
+
+        int locked = transactionTemplate.execute(status -> loginInformationRepository.lock(EMAIL));
+        int reset = transactionTemplate.execute(status -> loginInformationRepository.resetLoginAttempts(EMAIL));
+        int resetAgain = transactionTemplate.execute(status -> loginInformationRepository.resetLoginAttempts(EMAIL));
+
+        assertThat(locked).isEqualTo(1);
+        assertThat(reset).isEqualTo(1);
+        assertThat(resetAgain).isZero();
+        assertThat(loginInformationRepository.findById(id).orElseThrow())
+                .hasFieldOrPropertyWithValue("loginAttempts", 0)
+                .hasFieldOrPropertyWithValue("locked", true)
+                .hasFieldOrPropertyWithValue("version", 3L);
+    }
+
+    @Test
+    void willNotIncrementUnknownEmail() {
+        Optional<Integer> total = transactionTemplate.execute(status -> loginInformationRepository.incrementLoginAttempts("ghost@acme.com", 1));
+
+        assertThat(total).isEmpty();
+    }
+}
@@ -4,16 +4,20 @@ package account.repositories;
 import account.models.Employee;
 import account.models.Payroll;
 import account.utils.EmployeeFaker;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @DataJpaTest
 class PayrollRepositoryTest {
@@ -22,14 +26,16 @@ class PayrollRepositoryTest {
 
     private final EmployeeRepository employeeRepository;
     private final LoginInformationRepository loginInformationRepository;
+    private final TestEntityManager entityManager;
 
     private final EmployeeFaker faker = new EmployeeFaker();
 
     @Autowired
-    public PayrollRepositoryTest(PayrollRepository payrollRepository, EmployeeRepository employeeRepository, LoginInformationRepository loginInformationRepository) {
+    public PayrollRepositoryTest(PayrollRepository payrollRepository, EmployeeRepository employeeRepository, LoginInformationRepository loginInformationRepository, TestEntityManager entityManager) {
         this.payrollRepository = payrollRepository;
         this.employeeRepository = employeeRepository;
         this.loginInformationRepository = loginInformationRepository;
+        this.entityManager = entityManager;
     }
 
     @BeforeEach
@@ -141,6 +147,76 @@ class PayrollRepositoryTest {
         assertThat(found.get().getEmployee().getEmail()).isEqualTo(employee.getEmail());
     }
 
+    @Test
+    void canFindViewsByEmployeeEmailNewestFirst() {
+        Employee employee = faker.generateEmployee();
+        employeeRepository.save(employee);
+
+        List<Payroll> payrolls = faker.generatePayrolls(5);
+        payrolls.forEach(payroll -> payroll.setEmployee(employee));
+        payrollRepository.saveAll(payrolls);
+
+        List<PayrollView> found = payrollRepository.findViewsByEmployeeEmail(employee.getEmail(),
+                payrolls.get(1).getPeriod(), payrolls.get(3).getPeriod());
+
+        assertThat(found).extracting(PayrollView::period).containsExactly(
+                payrolls.get(3).getPeriod(), payrolls.get(2).getPeriod(), payrolls.get(1).getPeriod());
+        assertThat(found).allSatisfy(view -> {
+            assertThat(view.name()).isEqualTo(employee.getName());
+            assertThat(view.lastname()).isEqualTo(employee.getLastname());
+        });
+    }
+
+    @Test
+    void canFindStoredPeriodsAmongUploadedOnes() {
+        Employee employee = faker.generateEmployee();
+        employeeRepository.save(employee);
+        List<Payroll> payrolls = faker.generatePayrolls(5);
+        payrolls.forEach(payroll -> payroll.setEmployee(employee));
+        payrollRepository.saveAll(payrolls);
+        YearMonth unused = payrolls.get(4).getPeriod().plusYears(10);
+
+        List<PayrollRepository.EmployeePeriod> found = payrollRepository.findPeriods(List.of(employee.getId()),
+                List.of(payrolls.get(1).getPeriod(), payrolls.get(3).getPeriod(), unused));
+
+        assertThat(found).allMatch(stored -> stored.getEmployeeId().equals(employee.getId()))
+                .extracting(PayrollRepository.EmployeePeriod::getPeriod)
+                .containsExactlyInAnyOrder(payrolls.get(1).getPeriod(), payrolls.get(3).getPeriod());
+    }
+
+    @Test
+    void canFindViewByEmployeeEmailAndPeriod() {
+        Employee employee = faker.generateEmployee();
+        employeeRepository.save(employee);
+
+        List<Payroll> payrolls = faker.generatePayrolls(5);
+        payrolls.forEach(payroll -> payroll.setEmployee(employee));
+        payrollRepository.saveAll(payrolls);
+
+        Payroll selected = payrolls.get(2);
+
+        assertThat(payrollRepository.findViewByEmployeeEmailAndPeriod(employee.getEmail(), selected.getPeriod()))
+                .contains(new PayrollView(employee.getName(), employee.getLastname(), selected.getPeriod(), selected.getSalary()));
+        assertThat(payrollRepository.findViewByEmployeeEmailAndPeriod("nobody@acme.com", selected.getPeriod())).isEmpty();
+    }
+
+    @Test
+    void cannotSaveSamePeriodTwiceForEmployee() {
+        Employee employee = faker.generateEmployee();
+        employeeRepository.save(employee);
+
+        Payroll payroll = faker.generaPayroll();
+        payroll.setEmployee(employee);
+        payrollRepository.save(payroll);
+
+        Payroll duplicate = Payroll.builder().period(payroll.getPeriod()).salary(1L).employee(employee).build();
+
+        assertThatThrownBy(() -> {
+            payrollRepository.save(duplicate);
+            entityManager.flush();
+        }).isInstanceOf(ConstraintViolationException.class);
+    }
+
     @Test
     void canUpdatePayroll() {
         Employee employee = faker.generateEmployee();
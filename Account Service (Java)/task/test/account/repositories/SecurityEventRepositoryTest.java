@@ -0,0 +1,62 @@
+package account.repositories;
+
+import account.models.SecurityEvent;
+import account.requestBodies.SecurityEventFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class SecurityEventRepositoryTest {
+    @Autowired
+    private SecurityEventRepository securityEventRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private List<SecurityEvent> events;
+
+    @BeforeEach
+    void setUp() {
+        events = securityEventRepository.saveAll(List.of(
+                event(LocalDate.of(2024, 1, 10), "LOGIN_FAILED", "Anonymous"),
+                event(LocalDate.of(2024, 1, 11), "BRUTE_FORCE", "john@acme.com"),
+                event(LocalDate.of(2024, 1, 12), "LOGIN_FAILED", "Anonymous"),
+                event(LocalDate.of(2024, 1, 13), "LOCK_USER", "john@acme.com"),
+                event(LocalDate.of(2024, 1, 14), "LOGIN_FAILED", "Anonymous")
+        ));
+        entityManager.flush();
+    }
+
+    @Test
+    void willPageByIdAfterCursor() {
+        List<SecurityEvent> first = securityEventRepository.findPage(SecurityEventFilter.NONE, 0, 2);
+        List<SecurityEvent> second = securityEventRepository.findPage(SecurityEventFilter.NONE, first.get(1).getId(), 2);
+        List<SecurityEvent> last = securityEventRepository.findPage(SecurityEventFilter.NONE, second.get(1).getId(), 2);
+
+        assertThat(first).containsExactlyElementsOf(events.subList(0, 2));
+        assertThat(second).containsExactlyElementsOf(events.subList(2, 4));
+        assertThat(last).containsExactly(events.get(4));
+    }
+
+    @Test
+    void willFilterByActionSubjectAndDateRange() {
+        SecurityEventFilter failedLogins = new SecurityEventFilter("LOGIN_FAILED", "Anonymous", LocalDate.of(2024, 1, 11), LocalDate.of(2024, 1, 14));
+
+        assertThat(securityEventRepository.findPage(failedLogins, 0, 10))
+                .containsExactly(events.get(2), events.get(4));
+        assertThat(securityEventRepository.findPage(new SecurityEventFilter(null, "john@acme.com", null, null), 0, 10))
+                .extracting(SecurityEvent::getAction)
+                .containsExactly("BRUTE_FORCE", "LOCK_USER");
+    }
+
+    private static SecurityEvent event(LocalDate date, String action, String subject) {
+        return new SecurityEvent(null, date, action, subject, "john@acme.com", "/api/empl/payment");
+    }
+}
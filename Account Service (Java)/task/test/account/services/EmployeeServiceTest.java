@@ -4,7 +4,9 @@ import account.dtos.EmployeeDTO;
 import account.exceptions.EmployeeNotFoundException;
 import account.exceptions.RoleNotFoundException;
 import account.models.Employee;
+import account.models.Role;
 import account.repositories.EmployeeRepository;
+import account.requestBodies.EmployeeSort;
 import account.requestBodies.UpdateRoleRequest;
 import account.requestBodies.UserLockOperation;
 import account.responses.PasswordChangedResponse;
@@ -21,7 +23,6 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
@@ -49,21 +50,9 @@ class EmployeeServiceTest {
     @Autowired
     private EmployeeFaker faker;
 
-    @Test
-    void shouldExistByEmail() {
-        Employee employee1 = new Employee("John", "Doe", "john@doe.com", "password123456789", "USER");
-        Employee employee2 = new Employee("Mary", "Doe", "mary@doe.com", "password123456789", "USER");
-
-        when(employeeRepository.existsByEmailIgnoreCase(Mockito.anyString()))
-                .thenReturn(true);
-
-        boolean exists = employeeService.validateEmails(List.of(employee1.getEmail(), employee2.getEmail()));
-        assertThat(exists).isTrue();
-    }
-
     @Test
     void shouldFindEmployeeByEmail() {
-        Employee employee = new Employee("John", "Doe", "john@doe.com", "password123456789", "USER");
+        Employee employee = new Employee("John", "Doe", "john@doe.com", "password123456789", Role.USER);
 
         when(employeeRepository.findByEmailIgnoreCase(employee.getEmail()))
                 .thenReturn(Optional.of(employee));
@@ -81,7 +70,7 @@ class EmployeeServiceTest {
                 .lastname("Doe")
                 .email("john@doe.com")
                 .password("password123456789")
-                .roles(List.of("USER"))
+                .roles(Role.USER)
                 .build();
 
         ArgumentCaptor<Employee> employeeArgumentCaptor = ArgumentCaptor.forClass(Employee.class);
@@ -95,12 +84,24 @@ class EmployeeServiceTest {
         assertThat(signupResponse.getName()).isEqualTo(employee.getName());
         assertThat(signupResponse.getLastname()).isEqualTo(employee.getLastname());
         assertThat(signupResponse.getEmail()).isEqualTo(employee.getEmail());
-        assertThat(signupResponse.getRoles()).isEqualTo(employee.getRoles());
+        assertThat(signupResponse.getRoles()).isEqualTo(employee.getRoles().stream().map(Role::name).toList());
+    }
+
+    @Test
+    void willLowerCaseEmailOnRegister() {
+        Employee employee = new Employee("John", "Doe", "JohnDoe@ACME.com", "password123456789", Role.USER);
+        when(employeeRepository.save(any(Employee.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        SignupResponse signupResponse = employeeService.register(employee);
+
+        verify(employeeRepository).existsByEmailIgnoreCase("johndoe@acme.com");
+        assertThat(employee.getEmail()).isEqualTo("johndoe@acme.com");
+        assertThat(signupResponse.getEmail()).isEqualTo("johndoe@acme.com");
     }
 
     @Test
     void canUpdateEmployeePassword() {
-        Employee employee = new Employee("John", "Doe", "john@doe.com", "password123456789", "USER");
+        Employee employee = new Employee("John", "Doe", "john@doe.com", "password123456789", Role.USER);
         employee.setId(1L);
 
         when(employeeRepository.findByEmailIgnoreCase(employee.getEmail())).thenReturn(Optional.of(employee));
@@ -120,11 +121,11 @@ class EmployeeServiceTest {
         List<Employee> employees = Stream.generate(faker::generateEmployeeWithId)
                 .limit(10)
                 .toList();
-        when(employeeRepository.findAll()).thenReturn(employees);
+        when(employeeRepository.findAllWithLoginInformation()).thenReturn(employees);
 
         List<EmployeeDTO> all = employeeService.getAllEmployee();
 
-        verify(employeeRepository, times(1)).findAll();
+        verify(employeeRepository, times(1)).findAllWithLoginInformation();
 
         assertThat(all).hasSize(10);
 
@@ -138,6 +139,28 @@ class EmployeeServiceTest {
         });
     }
 
+    @Test
+    void canGetPageOfEmployees() {
+        List<Employee> employees = Stream.generate(faker::generateEmployeeWithId)
+                .limit(3)
+                .toList();
+        when(employeeRepository.findPage(Role.USER, EmployeeSort.EMAIL, "alice@acme.com", 3)).thenReturn(employees);
+
+        List<EmployeeDTO> page = employeeService.getEmployees("USER", EmployeeSort.EMAIL, "alice@acme.com", 3);
+
+        assertThat(page).extracting(EmployeeDTO::getEmail).containsExactlyElementsOf(employees.stream().map(Employee::getEmail).toList());
+    }
+
+    @Test
+    void cannotGetPageOfEmployeesWithUnknownRoleOrInvalidCursor() {
+        assertThatThrownBy(() -> employeeService.getEmployees("SOME_RANDOM_ROLE", EmployeeSort.ID, null, 10))
+                .isInstanceOf(RoleNotFoundException.class);
+        assertThatThrownBy(() -> employeeService.getEmployees(null, EmployeeSort.ID, "alice@acme.com", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        verify(employeeRepository, never()).findPage(any(), any(), any(), anyInt());
+    }
+
     @Test
     void canDeleteEmployeeByEmail() {
         Employee employee = faker.generateEmployee();
@@ -157,10 +180,10 @@ class EmployeeServiceTest {
     @Test
     void canUpdateAddRole() {
         Employee employee = faker.generateEmployee();
-        String newRole = "ACCOUNTANT";
+        Role newRole = Role.ACCOUNTANT;
         UpdateRoleRequest request = UpdateRoleRequest.builder()
                 .user(employee.getEmail())
-                .role(newRole)
+                .role(newRole.name())
                 .operation("GRANT")
                 .build();
 
@@ -169,7 +192,7 @@ class EmployeeServiceTest {
 
         EmployeeDTO dto = employeeService.updateRole(request);
 
-        employee.getRoles().add(newRole);
+        employee.addRole(newRole);
         verify(employeeRepository).save(employee);
 
         assertThat(dto).isNotNull()
@@ -179,7 +202,7 @@ class EmployeeServiceTest {
                 .hasFieldOrProperty("roles");
         assertThat(dto.getRoles())
                 .isNotEmpty()
-                .contains(newRole);
+                .contains(newRole.name());
     }
 
     @Test
@@ -203,7 +226,7 @@ class EmployeeServiceTest {
     void cannotLockUserForAdministrator(){
         Employee employee = faker.generateEmployeeWithId();
         employee.getLoginInformation().setLocked(false);
-        employee.setRoles(new ArrayList<>(List.of("ADMINISTRATOR")));
+        employee.setRoles(List.of(Role.ADMINISTRATOR));
         UserLockOperation operation = UserLockOperation.builder()
                 .user(employee.getEmail())
                 .operation("LOCK")
@@ -218,13 +241,13 @@ class EmployeeServiceTest {
     @Test
     void canUpdateRemoveRole() {
         Employee employee = faker.generateEmployeeWithId();
-        String deleteRole = "USER";
-        employee.setRoles(new ArrayList<>(List.of("ACCOUNTANT", deleteRole)));
+        Role deleteRole = Role.USER;
+        employee.setRoles(List.of(Role.ACCOUNTANT, deleteRole));
 
         when(employeeRepository.findByEmailIgnoreCase(employee.getEmail())).thenReturn(Optional.of(employee));
         when(employeeRepository.save(any(Employee.class))).thenReturn(employee);
 
-        UpdateRoleRequest request = new UpdateRoleRequest(employee.getEmail(), deleteRole, "REMOVE");
+        UpdateRoleRequest request = new UpdateRoleRequest(employee.getEmail(), deleteRole.name(), "REMOVE");
         EmployeeDTO dto = employeeService.updateRole(request);
         verify(employeeRepository).save(any(Employee.class));
 
@@ -235,7 +258,7 @@ class EmployeeServiceTest {
                 .hasFieldOrProperty("roles");
         assertThat(dto.getRoles())
                 .isNotEmpty()
-                .doesNotContain(deleteRole);
+                .doesNotContain(deleteRole.name());
     }
 
 
@@ -260,7 +283,7 @@ class EmployeeServiceTest {
     @Test
     void cannotRemoveRoleIfNotFound() {
         Employee employee = faker.generateEmployee();
-        employee.getRoles().addAll(List.of("SOME_ROLE_1", "SOME_ROLE_2"));
+        employee.addRole(Role.ACCOUNTANT);
         UpdateRoleRequest request = UpdateRoleRequest.builder()
                 .user(employee.getEmail())
                 .role("MADE_UP_ROLE")
@@ -279,7 +302,7 @@ class EmployeeServiceTest {
     @Test
     void cannotRemoveRoleIfUserDoesNotHaveRole() {
         Employee employee = faker.generateEmployee();
-        employee.getRoles().add("JANITOR");
+        employee.addRole(Role.AUDITOR);
         UpdateRoleRequest request = UpdateRoleRequest.builder()
                 .user(employee.getEmail())
                 .role("ACCOUNTANT")
@@ -316,11 +339,10 @@ class EmployeeServiceTest {
     @Test
     void cannotRemoveAdminRole() {
         Employee employee = faker.generateEmployee();
-        final String ADMIN_ROLE = "ADMINISTRATOR";
-        employee.setRoles(List.of(ADMIN_ROLE));
+        employee.setRoles(List.of(Role.ADMINISTRATOR));
         UpdateRoleRequest request = UpdateRoleRequest.builder()
                 .user(employee.getEmail())
-                .role(ADMIN_ROLE)
+                .role("ADMINISTRATOR")
                 .operation("REMOVE")
                 .build();
 
@@ -336,8 +358,7 @@ class EmployeeServiceTest {
     @Test
     void cannotGrantBusinessRoleToAdmin() {
         Employee employee = faker.generateEmployee();
-        final String ADMIN_ROLE = "ADMINISTRATOR";
-        employee.setRoles(List.of(ADMIN_ROLE));
+        employee.setRoles(List.of(Role.ADMINISTRATOR));
         UpdateRoleRequest request = UpdateRoleRequest.builder()
                 .user(employee.getEmail())
                 .role("USER")
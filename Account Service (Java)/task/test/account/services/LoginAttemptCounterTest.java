@@ -0,0 +1,179 @@
+package account.services;
+
+import account.repositories.LoginInformationRepository;
+import account.repositories.LoginInformationRepository.EmailLoginAttempts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class LoginAttemptCounterTest {
+    private static final String EMAIL = "johndoe@acme.com";
+
+    private final Map<String, Integer> stored = new HashMap<>();
+    private LoginInformationRepository repository;
+    private LoginAttemptCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(LoginInformationRepository.class);
+        when(repository.incrementLoginAttempts(anyString(), anyInt())).thenAnswer(invocation ->
+                Optional.of(stored.merge(invocation.getArgument(0), invocation.getArgument(1), Integer::sum)));
+        counter = new LoginAttemptCounter(repository, mock(PlatformTransactionManager.class), new SimpleMeterRegistry(),
+                5, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (counter.isRunning()) {
+            counter.stop();
+        }
+    }
+
+    @Test
+    void willWriteFailuresOnlyOnFlush() {
+        for (int i = 0; i < 3; i++) {
+            counter.recordFailure(EMAIL);
+        }
+
+        verifyNoInteractions(repository);
+
+        counter.flush();
+
+        verify(repository).incrementLoginAttempts(EMAIL, 3);
+        assertThat(counter.getFailures("JohnDoe@ACME.com")).isEqualTo(3);
+    }
+
+    @Test
+    void canFlushFailuresOfOneUser() {
+        counter.recordFailure(EMAIL);
+        counter.recordFailure("marydoe@acme.com");
+
+        counter.flush("JohnDoe@acme.com");
+
+        verify(repository).incrementLoginAttempts(EMAIL, 1);
+        verifyNoMoreInteractions(repository);
+
+        counter.flush();
+
+        verify(repository).incrementLoginAttempts("marydoe@acme.com", 1);
+        verifyNoMoreInteractions(repository);
+    }
+
+    @Test
+    void willLockOnlyOnceWhenLimitIsReached() {
+        List<Boolean> locking = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            locking.add(counter.isLockingAttempt(counter.recordFailure(EMAIL)));
+        }
+
+        assertThat(locking).containsExactly(false, false, false, false, true, false, false);
+    }
+
+    @Test
+    void willLockExactlyOnceUnderParallelFailures() throws Exception {
+        int logins = 1000;
+        CountDownLatch gate = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(64);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < logins; i++) {
+                results.add(pool.submit(() -> {
+                    gate.await();
+                    return counter.isLockingAttempt(counter.recordFailure(EMAIL));
+                }));
+            }
+            gate.countDown();
+
+            int locks = 0;
+            for (Future<Boolean> result : results) {
+                locks += result.get() ? 1 : 0;
+            }
+
+            assertThat(locks).isEqualTo(1);
+            assertThat(counter.getFailures(EMAIL)).isEqualTo(logins);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void willForgetPendingFailuresOnReset() {
+        counter.recordFailure(EMAIL);
+        counter.recordFailure(EMAIL);
+        counter.flush();
+        counter.recordFailure(EMAIL);
+
+        assertThat(counter.reset(EMAIL)).isEqualTo(3);
+        assertThat(counter.reset(EMAIL)).isZero();
+        counter.flush();
+
+        verify(repository).incrementLoginAttempts(EMAIL, 2);
+        verifyNoMoreInteractions(repository);
+        assertThat(counter.getFailures(EMAIL)).isZero();
+    }
+
+    @Test
+    void willTakeStoredTotalOnFlush() {
+        // failures written by another instance since the counter was loaded
+        stored.put(EMAIL, 3);
+
+        counter.recordFailure(EMAIL);
+        counter.flush();
+
+        assertThat(counter.getFailures(EMAIL)).isEqualTo(4);
+        assertThat(counter.isLockingAttempt(counter.recordFailure(EMAIL))).isTrue();
+    }
+
+    @Test
+    void willAddFailuresAgainAfterFailedFlush() {
+        doThrow(new IllegalStateException("database down")).when(repository).incrementLoginAttempts(EMAIL, 1);
+
+        counter.recordFailure(EMAIL);
+        assertThatThrownBy(counter::flush).isInstanceOf(IllegalStateException.class);
+        counter.recordFailure(EMAIL);
+        counter.flush();
+
+        assertThat(stored).containsEntry(EMAIL, 2);
+    }
+
+    @Test
+    void willDropCountersOfUnknownUsersOnFlush() {
+        doReturn(Optional.empty()).when(repository).incrementLoginAttempts("ghost@acme.com", 1);
+
+        counter.recordFailure("ghost@acme.com");
+        counter.flush();
+
+        assertThat(counter.getFailures("ghost@acme.com")).isZero();
+    }
+
+    @Test
+    void willLoadStoredFailuresOnStart() {
+        EmailLoginAttempts stored = mock(EmailLoginAttempts.class);
+        when(stored.getEmail()).thenReturn(EMAIL);
+        when(stored.getLoginAttempts()).thenReturn(4);
+        when(repository.findAllFailedLoginAttempts()).thenReturn(List.of(stored));
+
+        counter.start();
+
+        assertThat(counter.isLockingAttempt(counter.recordFailure(EMAIL))).isTrue();
+    }
+}
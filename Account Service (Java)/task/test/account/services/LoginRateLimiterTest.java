@@ -0,0 +1,139 @@
+package account.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginRateLimiterTest {
+    private static final String IP = "10.0.0.1";
+    private static final String EMAIL = "johndoe@acme.com";
+
+    private MutableClock clock;
+    private SimpleMeterRegistry meterRegistry;
+    private LoginRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2024-05-01T10:00:00Z"));
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimiter = new LoginRateLimiter(meterRegistry, true, 20, 5, Duration.ofMinutes(1), 1000, clock);
+    }
+
+    @Test
+    void willRejectUsernameOnceItsBucketIsEmpty() {
+        List<Boolean> exhausted = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            assertThat(rateLimiter.tryAcquire(IP, EMAIL)).isTrue();
+            exhausted.add(rateLimiter.recordFailure(IP, EMAIL));
+        }
+
+        assertThat(exhausted).containsExactly(false, false, false, false, true);
+        assertThat(rateLimiter.tryAcquire(IP, "JohnDoe@ACME.com")).isFalse();
+        assertThat(rateLimiter.tryAcquire(IP, "mary@acme.com")).isTrue();
+        assertThat(rateLimiter.retryAfter(IP, EMAIL)).isEqualTo(Duration.ofSeconds(12));
+        assertThat(meterRegistry.get("security.login.rate-limited").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void willRejectIpGuessingManyUsernames() {
+        for (int i = 0; i < 20; i++) {
+            rateLimiter.recordFailure(IP, "user" + i + "@acme.com");
+        }
+
+        assertThat(rateLimiter.tryAcquire(IP, "mary@acme.com")).isFalse();
+        assertThat(rateLimiter.tryAcquire("10.0.0.2", "mary@acme.com")).isTrue();
+    }
+
+    @Test
+    void willRefillOverTime() {
+        for (int i = 0; i < 5; i++) {
+            rateLimiter.recordFailure(IP, EMAIL);
+        }
+
+        clock.advance(Duration.ofSeconds(11));
+        assertThat(rateLimiter.tryAcquire(IP, EMAIL)).isFalse();
+        clock.advance(Duration.ofSeconds(1));
+        assertThat(rateLimiter.tryAcquire(IP, EMAIL)).isTrue();
+
+        assertThat(rateLimiter.recordFailure(IP, EMAIL)).isTrue();
+        assertThat(rateLimiter.tryAcquire(IP, EMAIL)).isFalse();
+    }
+
+    @Test
+    void willNotLimitWhenDisabled() {
+        LoginRateLimiter disabled = new LoginRateLimiter(meterRegistry, false, 1, 1, Duration.ofMinutes(1), 1000, clock);
+
+        disabled.recordFailure(IP, EMAIL);
+        disabled.recordFailure(IP, EMAIL);
+
+        assertThat(disabled.tryAcquire(IP, EMAIL)).isTrue();
+    }
+
+    @Test
+    void willReportExhaustionExactlyOnceUnderParallelFailures() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                results.add(pool.submit(() -> {
+                    gate.await();
+                    return rateLimiter.recordFailure(IP, EMAIL);
+                }));
+            }
+            gate.countDown();
+
+            int exhausted = 0;
+            for (Future<Boolean> result : results) {
+                exhausted += result.get() ? 1 : 0;
+            }
+
+            // once for the username bucket and once for the IP bucket
+            assertThat(exhausted).isEqualTo(2);
+            assertThat(rateLimiter.tryAcquire(IP, EMAIL)).isFalse();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package account.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PayrollResponseCacheTest {
+    private PayrollResponseCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new PayrollResponseCache(new SimpleMeterRegistry(), true, DataSize.ofMegabytes(1), Duration.ofMinutes(10));
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void willLoadEachResponseOnce() {
+        PayrollResponseCache.Key key = PayrollResponseCache.Key.list("john@acme.com", null, null);
+
+        cache.get(key, this::load);
+        byte[] second = cache.get(PayrollResponseCache.Key.list("JOHN@acme.com", null, null), this::load);
+
+        assertThat(loads).hasValue(1);
+        assertThat(new String(second, StandardCharsets.UTF_8)).isEqualTo("1");
+    }
+
+    @Test
+    void willEvictAllResponsesOfEmployeeOnly() {
+        PayrollResponseCache.Key list = PayrollResponseCache.Key.list("john@acme.com", null, null);
+        PayrollResponseCache.Key period = PayrollResponseCache.Key.period("john@acme.com", YearMonth.of(2024, 1));
+        PayrollResponseCache.Key other = PayrollResponseCache.Key.list("mary@acme.com", null, null);
+        cache.get(list, this::load);
+        cache.get(period, this::load);
+        cache.get(other, this::load);
+
+        cache.evict(List.of("John@acme.com"));
+        cache.get(list, this::load);
+        cache.get(period, this::load);
+        cache.get(other, this::load);
+
+        assertThat(loads).hasValue(5);
+    }
+
+    @Test
+    void willNotCacheReadStartedBeforeEviction() {
+        PayrollResponseCache.Key key = PayrollResponseCache.Key.list("john@acme.com", null, null);
+
+        cache.get(key, () -> {
+            // a writer commits while the old rows are being read
+            cache.evict(List.of("john@acme.com"));
+            return load();
+        });
+        cache.get(key, this::load);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void willEvictAfterCommit() {
+        PayrollResponseCache.Key key = PayrollResponseCache.Key.list("john@acme.com", null, null);
+        cache.get(key, this::load);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.evict(List.of("john@acme.com"));
+            cache.get(key, this::load);
+            assertThat(loads).hasValue(1);
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        cache.get(key, this::load);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void canDisableCache() {
+        cache = new PayrollResponseCache(new SimpleMeterRegistry(), false, DataSize.ofMegabytes(1), Duration.ofMinutes(10));
+        PayrollResponseCache.Key key = PayrollResponseCache.Key.list("john@acme.com", null, null);
+
+        cache.get(key, this::load);
+        cache.get(key, this::load);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    private byte[] load() {
+        return String.valueOf(loads.incrementAndGet()).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -3,9 +3,13 @@ package account.services;
 import account.dtos.PayrollDTO;
 import account.requestBodies.PayrollRequest;
 import account.exceptions.DuplicateEmployeePeriodException;
+import account.exceptions.EmployeeEmailNotValidException;
+import account.exceptions.PeriodRangeNotValidException;
 import account.models.Employee;
 import account.models.Payroll;
 import account.repositories.PayrollRepository;
+import account.repositories.PayrollView;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,7 +21,9 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.dao.DataIntegrityViolationException;
 
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Stream;
 
@@ -35,6 +41,10 @@ class PayrollServiceTest {
     private PayrollService payrollService;
     @Autowired
     private ModelMapper modelMapper;
+    @Autowired
+    private PayrollResponseCache responseCache;
+    @Autowired
+    private ObjectMapper objectMapper;
 
     public Employee employee;
 
@@ -46,27 +56,29 @@ class PayrollServiceTest {
     @AfterEach
     void tearDown() {
         payrollRepository.deleteAll();
+        responseCache.evictAll();
     }
 
     @Test
     void canSavePayrolls() {
 
-        Payroll payroll1 = Payroll.builder().period("03-2024").salary(1000L).employee(employee).build();
-        Payroll payroll2 = Payroll.builder().period("04-2024").salary(1000L).employee(employee).build();
-        Payroll payroll3 = Payroll.builder().period("05-2024").salary(1000L).employee(employee).build();
+        Payroll payroll1 = Payroll.builder().period(YearMonth.of(2024, 3)).salary(1000L).employee(employee).build();
+        Payroll payroll2 = Payroll.builder().period(YearMonth.of(2024, 4)).salary(1000L).employee(employee).build();
+        Payroll payroll3 = Payroll.builder().period(YearMonth.of(2024, 5)).salary(1000L).employee(employee).build();
 
         List<PayrollRequest> bodies = Stream.of(payroll1, payroll2, payroll3)
                 .map(payroll -> modelMapper.map(payroll, PayrollRequest.class))
                 .toList();
 
 
-        when(employeeService.validateEmails(anyList())).thenReturn(true);
-        when(employeeService.findByEmail(anyString())).thenReturn(Optional.of(employee));
-        when(payrollRepository.save(any(Payroll.class))).thenReturn(payroll1, payroll2, payroll3);
+        when(employeeService.findAllByEmail(anyCollection())).thenReturn(Map.of(employee.getEmail(), employee));
+        when(payrollRepository.saveAll(anyList())).thenReturn(List.of(payroll1, payroll2, payroll3));
 
         List<Payroll> saved = payrollService.savePayrolls(bodies);
 
-        Mockito.verify(employeeService, times(1)).validateEmails(anyList());
+        Mockito.verify(employeeService, times(1)).findAllByEmail(anyCollection());
+        Mockito.verify(employeeService, never()).findByEmail(anyString());
+        Mockito.verify(payrollRepository, times(1)).findPeriods(anyCollection(), anyCollection());
         Mockito.verify(payrollRepository, times(1)).saveAll(anyList());
 
         assertThat(saved).isNotNull();
@@ -79,7 +91,7 @@ class PayrollServiceTest {
 
     @Test
     void cannotSavePayrollOfSameEmployeeAndPeriod() {
-        String period = "05-2024";
+        YearMonth period = YearMonth.of(2024, 5);
         Payroll payroll1 = Payroll.builder().period(period).salary(1000L).employee(employee).build();
         Payroll payroll2 = Payroll.builder().period(period).salary(1500L).employee(employee).build();
 
@@ -87,9 +99,7 @@ class PayrollServiceTest {
                 .map(payroll -> modelMapper.map(payroll, PayrollRequest.class))
                 .toList();
 
-        when(employeeService.validateEmails(anyList())).thenReturn(true);
-        when(employeeService.findByEmail(anyString())).thenReturn(Optional.of(employee));
-        when(payrollRepository.save(any(Payroll.class))).thenReturn(payroll1);
+        when(employeeService.findAllByEmail(anyCollection())).thenReturn(Map.of(employee.getEmail(), employee));
         when(payrollRepository.saveAll(anyList())).thenThrow(DataIntegrityViolationException.class);
 
         Assertions.assertThatThrownBy(() -> payrollService.savePayrolls(bodies))
@@ -97,14 +107,52 @@ class PayrollServiceTest {
 
     }
 
+    @Test
+    void canSaveSamePeriodForDifferentEmployees() {
+        Employee other = Employee.builder().id(2L).name("Mary").lastname("Doe").email("marydoe@acme.com").password("secretpassword").build();
+        employee.setId(1L);
+        List<PayrollRequest> bodies = List.of(
+                new PayrollRequest("05-2024", 1000L, employee.getEmail()),
+                new PayrollRequest("05-2024", 1500L, other.getEmail().toUpperCase())
+        );
+
+        when(employeeService.findAllByEmail(anyCollection())).thenReturn(Map.of(employee.getEmail(), employee, other.getEmail(), other));
+
+        payrollService.savePayrolls(bodies);
+
+        Mockito.verify(payrollRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void cannotSavePeriodAlreadyStoredForEmployee() {
+        employee.setId(1L);
+        PayrollRepository.EmployeePeriod stored = mock(PayrollRepository.EmployeePeriod.class);
+        when(stored.getEmployeeId()).thenReturn(1L);
+        when(stored.getPeriod()).thenReturn(YearMonth.of(2024, 5));
+
+        when(employeeService.findAllByEmail(anyCollection())).thenReturn(Map.of(employee.getEmail(), employee));
+        when(payrollRepository.findPeriods(anyCollection(), anyCollection())).thenReturn(List.of(stored));
+
+        Assertions.assertThatThrownBy(() -> payrollService.savePayrolls(List.of(new PayrollRequest("05-2024", 1000L, employee.getEmail()))))
+                .isInstanceOf(DuplicateEmployeePeriodException.class);
+        Mockito.verify(payrollRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void cannotSavePayrollOfUnknownEmployee() {
+        when(employeeService.findAllByEmail(anyCollection())).thenReturn(Map.of());
+
+        Assertions.assertThatThrownBy(() -> payrollService.savePayrolls(List.of(new PayrollRequest("05-2024", 1000L, "nobody@acme.com"))))
+                .isInstanceOf(EmployeeEmailNotValidException.class);
+    }
+
     @Test
     void canUpdatePayroll() {
-        String period = "05-2024";
+        YearMonth period = YearMonth.of(2024, 5);
         Payroll payroll = Payroll.builder().period(period).salary(1000L).employee(employee).build();
         PayrollRequest payrollRequestBody = modelMapper.map(payroll, PayrollRequest.class);
 
-        when(employeeService.validateEmails(anyList())).thenReturn(true);
-        when(employeeService.findByEmail(eq(payroll.getEmployee().getEmail()))).thenReturn(Optional.of(employee));
+        when(employeeService.findAllByEmail(anyCollection())).thenReturn(Map.of(employee.getEmail(), employee));
         when(payrollRepository.findByEmployeeEmailAndPeriod(eq(employee.getEmail()), eq(period))).thenReturn(Optional.of(payroll));
         when(payrollRepository.save(any(Payroll.class))).thenReturn(payroll);
         when(payrollRepository.saveAll(anyList())).thenReturn(List.of(payroll));
@@ -121,7 +169,7 @@ class PayrollServiceTest {
 
 //    @Test
 //    void cannotUpdatePayrollOfUnknownRecord() {
-//        Payroll payroll = Payroll.builder().period("05-2024").salary(1000L).employee(employee).build();
+//        Payroll payroll = Payroll.builder().period(YearMonth.of(2024, 5)).salary(1000L).employee(employee).build();
 //        PayrollRequestBody payrollRequestBody = PayrollRequestBody.builder()
 //                .period(payroll.getPeriod())
 //                .salary(payroll.getSalary())
@@ -145,13 +193,11 @@ class PayrollServiceTest {
 
     @Test
     void canGetPayrollsByEmailAndPeriod() {
-        Payroll payroll = Payroll.builder().id(1L).period("05-2024").salary(123456L).employee(employee).build();
-        PayrollRequest.builder().salary(payroll.getSalary()).period(payroll.getPeriod()).employeeEmail(payroll.getEmployee().getEmail()).build();
+        PayrollView payroll = new PayrollView(employee.getName(), employee.getLastname(), YearMonth.of(2024, 5), 123456L);
 
-        when(employeeService.findByEmail(anyString())).thenReturn(Optional.of(employee));
-        when(payrollRepository.findByEmployeeEmailAndPeriod(anyString(), anyString())).thenReturn(Optional.of(payroll));
+        when(payrollRepository.findViewByEmployeeEmailAndPeriod(anyString(), any(YearMonth.class))).thenReturn(Optional.of(payroll));
 
-        PayrollDTO payrollDTO = payrollService.getPayroll(payroll.getEmployee().getEmail(), payroll.getPeriod());
+        PayrollDTO payrollDTO = payrollService.getPayroll(employee.getEmail(), payroll.period());
 
         assertThat(payrollDTO).isNotNull();
         assertThat(payrollDTO.getPeriod()).isEqualTo("May-2024");
@@ -159,4 +205,26 @@ class PayrollServiceTest {
         assertThat(payrollDTO.getName()).isEqualTo(employee.getName());
         assertThat(payrollDTO.getLastname()).isEqualTo(employee.getLastname());
     }
-}
\ No newline at end of file
+
+    @Test
+    void cannotGetPayrollsFromAfterTo() {
+        Assertions.assertThatThrownBy(() -> payrollService.getPayrollJson(employee.getEmail(), YearMonth.of(2024, 6), YearMonth.of(2024, 5)))
+                .isInstanceOf(PeriodRangeNotValidException.class);
+        Mockito.verify(payrollRepository, never()).findViewsByEmployeeEmail(anyString(), any(), any());
+    }
+
+    @Test
+    void willServeCompactJsonAndIndentOnlyOnRequest() throws Exception {
+        PayrollView payroll = new PayrollView(employee.getName(), employee.getLastname(), YearMonth.of(2024, 5), 123456L);
+
+        when(payrollRepository.findViewsByEmployeeEmail(anyString(), any(YearMonth.class), any(YearMonth.class))).thenReturn(List.of(payroll));
+
+        String compact = new String(payrollService.getPayrollJson(employee.getEmail(), null, null));
+        String pretty = new String(payrollService.prettyPrint(compact.getBytes()));
+
+        assertThat(compact)
+                .isEqualTo("[{\"name\":\"John\",\"lastname\":\"Doe\",\"period\":\"May-2024\",\"salary\":\"1234 dollar(s) 56 cent(s)\"}]");
+        assertThat(pretty).contains("\n").isNotEqualTo(compact);
+        assertThat(objectMapper.readTree(pretty)).isEqualTo(objectMapper.readTree(compact));
+    }
+}
@@ -0,0 +1,143 @@
+package account.services;
+
+import account.exceptions.DuplicateEmployeePeriodException;
+import account.exceptions.EmployeeEmailNotValidException;
+import account.models.Employee;
+import account.models.Role;
+import account.repositories.EmployeeRepository;
+import account.repositories.LoginInformationRepository;
+import account.requestBodies.PayrollRequest;
+import jakarta.validation.ConstraintViolationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.StringJoiner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:payroll-upload-service",
+        "account.payroll.upload.chunk-size=10"
+})
+class PayrollUploadServiceTest {
+    @Autowired
+    private PayrollUploadService payrollUploadService;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private LoginInformationRepository loginInformationRepository;
+    @Autowired
+    private PayrollService payrollService;
+    @Autowired
+    private PayrollResponseCache responseCache;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        employeeRepository.save(new Employee("John", "Doe", "johndoe@acme.com", "password123456789", Role.USER));
+        employeeRepository.save(new Employee("Mary", "Doe", "marydoe@acme.com", "password123456789", Role.USER));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DELETE FROM payrolls");
+        employeeRepository.deleteAll();
+        loginInformationRepository.deleteAll();
+        responseCache.evictAll();
+    }
+
+    @Test
+    void willEvictCachedPayrollsOfEmployeesWrittenTo() throws IOException {
+        payrollService.savePayrolls(List.of(new PayrollRequest("01-2024", 100000L, "johndoe@acme.com")));
+        assertThat(cachedPayrolls()).contains("January-2024").doesNotContain("February-2024");
+
+        payrollUploadService.savePayrolls(json("[" + row("johndoe@acme.com", "02-2024") + "]"));
+        assertThat(cachedPayrolls()).contains("February-2024");
+
+        payrollService.updatePayroll(new PayrollRequest("01-2024", 555L, "johndoe@acme.com"));
+        assertThat(cachedPayrolls()).contains("5 dollar(s) 55 cent(s)");
+    }
+
+    @Test
+    void canUploadAcrossSeveralChunks() throws IOException {
+        StringJoiner rows = new StringJoiner(",", "[", "]");
+        for (int month = 1; month <= 12; month++) {
+            rows.add(row("JohnDoe@acme.com", "%02d-2024".formatted(month)));
+            rows.add(row("marydoe@acme.com", "%02d-2024".formatted(month)));
+        }
+
+        long saved = payrollUploadService.savePayrolls(json(rows.toString()));
+
+        assertThat(saved).isEqualTo(24);
+        assertThat(payrollCount()).isEqualTo(24);
+        assertThat(stagingCount()).isZero();
+    }
+
+    @Test
+    void willStoreNothingIfLastChunkHasDuplicate() {
+        StringJoiner rows = new StringJoiner(",", "[", "]");
+        for (int month = 1; month <= 12; month++) {
+            rows.add(row("johndoe@acme.com", "%02d-2024".formatted(month)));
+        }
+        rows.add(row("johndoe@acme.com", "01-2024"));
+
+        assertThatThrownBy(() -> payrollUploadService.savePayrolls(json(rows.toString())))
+                .isInstanceOf(DuplicateEmployeePeriodException.class);
+        assertThat(payrollCount()).isZero();
+        assertThat(stagingCount()).isZero();
+    }
+
+    @Test
+    void cannotUploadPeriodAlreadyStored() throws IOException {
+        payrollUploadService.savePayrolls(json("[" + row("johndoe@acme.com", "01-2024") + "]"));
+
+        assertThatThrownBy(() -> payrollUploadService.savePayrolls(json("[" + row("johndoe@acme.com", "01-2024") + "]")))
+                .isInstanceOf(DuplicateEmployeePeriodException.class);
+        assertThat(payrollCount()).isEqualTo(1);
+    }
+
+    @Test
+    void cannotUploadInvalidOrUnknownRows() {
+        assertThatThrownBy(() -> payrollUploadService.savePayrolls(json("[" + row("johndoe@acme.com", "13-2024") + "]")))
+                .isInstanceOf(ConstraintViolationException.class);
+        assertThatThrownBy(() -> payrollUploadService.savePayrolls(json("[" + row("nobody@acme.com", "01-2024") + "]")))
+                .isInstanceOf(EmployeeEmailNotValidException.class);
+        assertThatThrownBy(() -> payrollUploadService.savePayrolls(json("{\"employee\": \"johndoe@acme.com\"}")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(payrollCount()).isZero();
+        assertThat(stagingCount()).isZero();
+    }
+
+    private long payrollCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM payrolls", Long.class);
+    }
+
+    private long stagingCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM payroll_staging", Long.class);
+    }
+
+    private String cachedPayrolls() {
+        return new String(payrollService.getPayrollJson("johndoe@acme.com", null, null), StandardCharsets.UTF_8);
+    }
+
+    private static String row(String email, String period) {
+        return "{\"employee\": \"%s\", \"period\": \"%s\", \"salary\": 123456}".formatted(email, period);
+    }
+
+    private static InputStream json(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,73 @@
+package account.services;
+
+import account.models.SecurityEvent;
+import account.repositories.SecurityEventRepository;
+import account.requestBodies.SecurityEventFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static account.services.SecurityEventService.STREAM_PAGE_SIZE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class SecurityEventServiceTest {
+    private SecurityEventRepository repository;
+    private SecurityEventWriter writer;
+    private SecurityEventService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(SecurityEventRepository.class);
+        writer = mock(SecurityEventWriter.class);
+        service = new SecurityEventService(repository, writer);
+    }
+
+    @Test
+    void willStreamEventsPageByPage() {
+        SecurityEventFilter filter = new SecurityEventFilter("LOGIN_FAILED", null, null, null);
+        int total = 2 * STREAM_PAGE_SIZE + 3;
+        when(repository.findPage(eq(filter), anyLong(), eq(STREAM_PAGE_SIZE))).thenAnswer(invocation -> {
+            long after = invocation.getArgument(1);
+            return events(after + 1, Math.min(after + STREAM_PAGE_SIZE, 10 + total));
+        });
+        List<SecurityEvent> streamed = new ArrayList<>();
+
+        service.forEachSecurityEvent(filter, 10, streamed::add);
+
+        assertThat(streamed).extracting(SecurityEvent::getId)
+                .containsExactlyElementsOf(LongStream.rangeClosed(11, 10 + total).boxed().toList());
+        verify(writer).flush();
+        verify(repository).findPage(filter, 10, STREAM_PAGE_SIZE);
+        verify(repository).findPage(filter, 10 + STREAM_PAGE_SIZE, STREAM_PAGE_SIZE);
+        verify(repository).findPage(filter, 10 + 2 * STREAM_PAGE_SIZE, STREAM_PAGE_SIZE);
+        verifyNoMoreInteractions(repository);
+    }
+
+    @Test
+    void willStopAfterEmptyPage() {
+        when(repository.findPage(SecurityEventFilter.NONE, 0, STREAM_PAGE_SIZE))
+                .thenReturn(events(1, STREAM_PAGE_SIZE));
+        when(repository.findPage(SecurityEventFilter.NONE, STREAM_PAGE_SIZE, STREAM_PAGE_SIZE))
+                .thenReturn(List.of());
+        List<SecurityEvent> streamed = new ArrayList<>();
+
+        service.forEachSecurityEvent(SecurityEventFilter.NONE, 0, streamed::add);
+
+        assertThat(streamed).hasSize(STREAM_PAGE_SIZE);
+        verify(repository, times(2)).findPage(any(), anyLong(), anyInt());
+    }
+
+    private static List<SecurityEvent> events(long firstId, long lastId) {
+        return LongStream.rangeClosed(firstId, lastId)
+                .mapToObj(id -> new SecurityEvent(id, LocalDate.of(2024, 1, 10), "LOGIN_FAILED", "Anonymous",
+                        "john@acme.com", "/api/empl/payment"))
+                .toList();
+    }
+}
@@ -0,0 +1,270 @@
+package account.services;
+
+import account.models.SecurityEvent;
+import account.repositories.SecurityEventRepository;
+import account.services.SecurityEventWriter.OverflowPolicy;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class SecurityEventWriterTest {
+    @TempDir
+    private Path tempDir;
+
+    private static final Duration BLOCK_TIMEOUT = Duration.ofMillis(200);
+
+    private final List<SecurityEvent> saved = new CopyOnWriteArrayList<>();
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private SecurityEventRepository repository;
+    private SecurityEventWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(SecurityEventRepository.class);
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<SecurityEvent> batch = invocation.getArgument(0);
+            saved.addAll(batch);
+            batchSizes.add(batch.size());
+            return batch;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null && writer.isRunning()) {
+            writer.stop();
+        }
+    }
+
+    @Test
+    void willWriteInBatchesOnceBatchSizeIsReached() {
+        writer = start(100, 10, Duration.ofHours(1), OverflowPolicy.BLOCK);
+
+        events(25).forEach(writer::enqueue);
+
+        verify(repository, timeout(5000).atLeastOnce()).saveAll(anyList());
+        writer.flush();
+        assertThat(saved).hasSize(25);
+        assertThat(batchSizes).allMatch(size -> size <= 10);
+        assertThat(writer.getQueueDepth()).isZero();
+    }
+
+    @Test
+    void willWritePendingEventsAfterFlushInterval() {
+        writer = start(100, 10, Duration.ofMillis(50), OverflowPolicy.BLOCK);
+
+        events(3).forEach(writer::enqueue);
+
+        verify(repository, timeout(5000)).saveAll(anyList());
+        assertThat(saved).hasSize(3);
+    }
+
+    @Test
+    void willWaitForFreeSlotWhenFull() {
+        writer = start(2, 100, Duration.ofHours(1), OverflowPolicy.BLOCK);
+
+        events(3).forEach(writer::enqueue);
+
+        // the third event only fits once the worker, woken by the full queue, has taken the first two
+        verify(repository, timeout(5000).atLeastOnce()).saveAll(anyList());
+        writer.flush();
+        assertThat(saved).extracting(SecurityEvent::getObject).containsExactly("user0", "user1", "user2");
+    }
+
+    @Test
+    void willWriteEventItselfWhenWaitTimesOut() throws Exception {
+        CountDownLatch slowDatabase = new CountDownLatch(1);
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            if (Thread.currentThread().getName().equals("security-event-writer")) {
+                slowDatabase.await();
+            }
+            List<SecurityEvent> batch = invocation.getArgument(0);
+            saved.addAll(batch);
+            return batch;
+        });
+        writer = start(2, 2, Duration.ofHours(1), OverflowPolicy.BLOCK);
+        List<SecurityEvent> events = events(5);
+        try {
+            events.subList(0, 2).forEach(writer::enqueue);
+            // the worker takes both and hangs in the insert
+            verify(repository, timeout(5000)).saveAll(anyList());
+            events.subList(2, 4).forEach(writer::enqueue);
+
+            long start = System.nanoTime();
+            writer.enqueue(events.get(4));
+
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(BLOCK_TIMEOUT);
+            assertThat(saved).containsExactly(events.get(4));
+        } finally {
+            slowDatabase.countDown();
+        }
+        writer.stop();
+        assertThat(saved).containsExactlyInAnyOrderElementsOf(events);
+    }
+
+    @Test
+    void willDropOldestEventsWhenFull() {
+        writer = start(3, 100, Duration.ofHours(1), OverflowPolicy.DROP_OLDEST);
+        List<SecurityEvent> events = events(5);
+
+        events.forEach(writer::enqueue);
+        writer.flush();
+
+        assertThat(saved).containsExactlyElementsOf(events.subList(2, 5));
+        assertThat(meterRegistry.counter("security.events.dropped").count()).isEqualTo(2);
+    }
+
+    @Test
+    void willSpillToFileWhenFullAndReplayOnFlush() throws IOException {
+        writer = start(2, 100, Duration.ofHours(1), OverflowPolicy.SPILL);
+
+        events(3).forEach(writer::enqueue);
+
+        assertThat(tempDir.resolve("events.ndjson")).exists();
+        writer.flush();
+        assertThat(saved).extracting(SecurityEvent::getObject).containsExactly("user0", "user1", "user2");
+        assertThat(Files.list(tempDir).toList()).isEmpty();
+    }
+
+    @Test
+    void willDrainQueueOnStop() {
+        writer = start(100, 100, Duration.ofHours(1), OverflowPolicy.BLOCK);
+
+        events(7).forEach(writer::enqueue);
+        writer.stop();
+
+        assertThat(saved).hasSize(7);
+        assertThat(writer.isRunning()).isFalse();
+    }
+
+    @Test
+    void willReplayLeftoverFileBeforeNewSpills() throws IOException {
+        List<SecurityEvent> events = events(2);
+        spill(events.subList(0, 1));
+        Files.move(tempDir.resolve("events.ndjson"), tempDir.resolve("events.ndjson.replaying"));
+        spill(events.subList(1, 2));
+        writer = start(100, 100, Duration.ofHours(1), OverflowPolicy.SPILL);
+
+        writer.flush();
+
+        assertThat(saved).extracting(SecurityEvent::getObject).containsExactly("user0", "user1");
+        assertThat(Files.list(tempDir).toList()).isEmpty();
+    }
+
+    @Test
+    void willKeepUnsavedSpilledEventsForNextReplay() throws IOException {
+        AtomicBoolean databaseDown = new AtomicBoolean(true);
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<SecurityEvent> batch = invocation.getArgument(0);
+            if (databaseDown.get() && batch.get(0).getObject().equals("user4")) {
+                throw new IllegalStateException("database down");
+            }
+            saved.addAll(batch);
+            return batch;
+        });
+        spill(events(7));
+        writer = start(100, 2, Duration.ofHours(1), OverflowPolicy.SPILL);
+
+        writer.flush();
+
+        assertThat(saved).extracting(SecurityEvent::getObject).containsExactly("user0", "user1", "user2", "user3");
+        assertThat(tempDir.resolve("events.ndjson.replaying")).exists();
+
+        databaseDown.set(false);
+        writer.flush();
+
+        assertThat(saved).extracting(SecurityEvent::getObject)
+                .containsExactly("user0", "user1", "user2", "user3", "user4", "user5", "user6");
+        assertThat(Files.list(tempDir).toList()).isEmpty();
+    }
+
+    @Test
+    void willWriteEventsEnqueuedWhileStopping() throws Exception {
+        AtomicInteger stored = new AtomicInteger();
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<SecurityEvent> batch = invocation.getArgument(0);
+            stored.addAndGet(batch.size());
+            return batch;
+        });
+        SecurityEvent event = events(1).get(0);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            // the gap between the running check and the offer is short, so stop many writers under load
+            for (int round = 0; round < 200; round++) {
+                writer = start(10_000, 100, Duration.ofHours(1), OverflowPolicy.BLOCK);
+                stored.set(0);
+                AtomicInteger enqueued = new AtomicInteger();
+                AtomicBoolean stopped = new AtomicBoolean();
+                CountDownLatch started = new CountDownLatch(4);
+                List<Future<?>> producers = new ArrayList<>();
+                for (int i = 0; i < 4; i++) {
+                    producers.add(pool.submit(() -> {
+                        started.countDown();
+                        while (!stopped.get()) {
+                            writer.enqueue(event);
+                            enqueued.incrementAndGet();
+                        }
+                    }));
+                }
+                started.await();
+                writer.stop();
+                stopped.set(true);
+                for (Future<?> producer : producers) {
+                    producer.get();
+                }
+
+                assertThat(stored.get()).as("round %d", round).isEqualTo(enqueued.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private SecurityEventWriter start(int capacity, int batchSize, Duration flushInterval, OverflowPolicy policy) {
+        SecurityEventWriter writer = new SecurityEventWriter(repository, mock(PlatformTransactionManager.class),
+                new ObjectMapper().findAndRegisterModules(), meterRegistry,
+                capacity, batchSize, flushInterval, policy, tempDir.resolve("events.ndjson").toString(), BLOCK_TIMEOUT);
+        writer.start();
+        return writer;
+    }
+
+    private void spill(List<SecurityEvent> events) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        StringBuilder lines = new StringBuilder();
+        for (SecurityEvent event : events) {
+            lines.append(objectMapper.writeValueAsString(event)).append('\n');
+        }
+        Files.writeString(tempDir.resolve("events.ndjson"), lines);
+    }
+
+    private static List<SecurityEvent> events(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new SecurityEvent("LOGIN_FAILED", "Anonymous", "user" + i, "/api/empl/payment"))
+                .toList();
+    }
+}
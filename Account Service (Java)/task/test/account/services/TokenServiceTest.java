@@ -0,0 +1,102 @@
+package account.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenServiceTest {
+    private static final Duration TTL = Duration.ofMinutes(15);
+
+    private final Instant now = Instant.parse("2024-05-01T10:00:00Z");
+    private TokenService tokenService;
+    private UserDetails user;
+
+    @BeforeEach
+    void setUp() {
+        tokenService = new TokenService(new ObjectMapper(), "", TTL, Clock.fixed(now, ZoneOffset.UTC));
+        user = User.withUsername("JohnDoe@acme.com").password("secret").roles("USER", "ACCOUNTANT").build();
+    }
+
+    @Test
+    void canVerifyIssuedToken() {
+        String token = tokenService.issue(user).token();
+
+        UserDetails principal = tokenService.verify(token).orElseThrow();
+
+        assertThat(principal.getUsername()).isEqualTo(user.getUsername());
+        assertThat(AuthorityUtils.authorityListToSet(principal.getAuthorities()))
+                .containsExactlyInAnyOrder("ROLE_USER", "ROLE_ACCOUNTANT");
+    }
+
+    @Test
+    void cannotVerifyTamperedToken() {
+        String token = tokenService.issue(user).token();
+        String forged = tokenService.issue(User.withUsername("admin@acme.com").password("x").roles("ADMINISTRATOR").build()).token();
+
+        String tampered = forged.substring(0, forged.indexOf('.')) + token.substring(token.indexOf('.'));
+
+        assertThat(tokenService.verify(tampered)).isEmpty();
+        assertThat(tokenService.verify("not-a-token")).isEmpty();
+        assertThat(tokenService.verify("a.b")).isEmpty();
+    }
+
+    @Test
+    void cannotVerifyTokenSignedByAnotherInstance() {
+        String token = new TokenService(new ObjectMapper(), "", TTL, Clock.fixed(now, ZoneOffset.UTC)).issue(user).token();
+
+        assertThat(tokenService.verify(token)).isEmpty();
+    }
+
+    @Test
+    void cannotVerifyExpiredToken() {
+        TokenService shortLived = new TokenService(new ObjectMapper(), "", Duration.ZERO, Clock.fixed(now, ZoneOffset.UTC));
+        String token = shortLived.issue(user).token();
+
+        assertThat(shortLived.verify(token)).isEmpty();
+    }
+
+    @Test
+    void willRevokeOutstandingTokensOfUserOnly() {
+        UserDetails other = User.withUsername("mary@acme.com").password("secret").roles("USER").build();
+        String token = tokenService.issue(user).token();
+        String otherToken = tokenService.issue(other).token();
+
+        tokenService.revoke("johndoe@ACME.com");
+
+        assertThat(tokenService.verify(token)).isEmpty();
+        assertThat(tokenService.verify(otherToken)).isPresent();
+        assertThat(tokenService.verify(tokenService.issue(user).token())).isPresent();
+    }
+
+    @Test
+    void willRevokeTokensOnlyAfterCommit() {
+        String token = tokenService.issue(user).token();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            tokenService.revoke(user.getUsername());
+            // issued while the transaction that changes the user has not committed yet
+            String issuedBeforeCommit = tokenService.issue(user).token();
+            assertThat(tokenService.verify(token)).isPresent();
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+
+            assertThat(tokenService.verify(token)).isEmpty();
+            assertThat(tokenService.verify(issuedBeforeCommit)).isEmpty();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
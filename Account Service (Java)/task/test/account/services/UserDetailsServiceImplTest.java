@@ -0,0 +1,107 @@
+package account.services;
+
+import account.models.Employee;
+import account.models.Role;
+import account.repositories.EmployeeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class UserDetailsServiceImplTest {
+    private EmployeeRepository repo;
+    private UserDetailsServiceImpl userDetailsService;
+    private Employee employee;
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(EmployeeRepository.class);
+        userDetailsService = new UserDetailsServiceImpl(repo, new SimpleMeterRegistry(), true, 100, Duration.ofMinutes(5));
+        employee = new Employee("John", "Doe", "John@acme.com", "{noop}password123456789", Role.ACCOUNTANT);
+        when(repo.findByEmailIgnoreCase(anyString())).thenReturn(Optional.of(employee));
+    }
+
+    @Test
+    void willLoadEachUserFromDatabaseOnce() {
+        UserDetails first = userDetailsService.loadUserByUsername("john@acme.com");
+        UserDetails second = userDetailsService.loadUserByUsername("JOHN@acme.com");
+
+        verify(repo, times(1)).findByEmailIgnoreCase(anyString());
+        assertThat(second.getUsername()).isEqualTo("John@acme.com");
+        assertThat(second.getPassword()).isEqualTo(first.getPassword());
+        assertThat(AuthorityUtils.authorityListToSet(second.getAuthorities())).containsExactly("ROLE_ACCOUNTANT");
+    }
+
+    @Test
+    void willNotShareErasedCredentialsBetweenCalls() {
+        UserDetails first = userDetailsService.loadUserByUsername("john@acme.com");
+        ((CredentialsContainer) first).eraseCredentials();
+
+        assertThat(userDetailsService.loadUserByUsername("john@acme.com").getPassword()).isEqualTo("{noop}password123456789");
+    }
+
+    @Test
+    void willReloadUserAfterEviction() {
+        userDetailsService.loadUserByUsername("john@acme.com");
+        employee.getLoginInformation().setLocked(true);
+
+        assertThat(userDetailsService.loadUserByUsername("john@acme.com").isAccountNonLocked()).isTrue();
+        userDetailsService.evict("JOHN@ACME.COM");
+        assertThat(userDetailsService.loadUserByUsername("john@acme.com").isAccountNonLocked()).isFalse();
+    }
+
+    @Test
+    void willEvictUserAfterCommit() {
+        userDetailsService.loadUserByUsername("john@acme.com");
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userDetailsService.evict("john@acme.com");
+            // a login between the write and the commit still reads the old row and caches it
+            assertThat(userDetailsService.loadUserByUsername("john@acme.com").isAccountNonLocked()).isTrue();
+            employee.getLoginInformation().setLocked(true);
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(userDetailsService.loadUserByUsername("john@acme.com").isAccountNonLocked()).isFalse();
+    }
+
+    @Test
+    void willNotCacheUnknownUsers() {
+        when(repo.findByEmailIgnoreCase("mary@acme.com")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> userDetailsService.loadUserByUsername("mary@acme.com"))
+                .isInstanceOf(UsernameNotFoundException.class);
+        assertThatThrownBy(() -> userDetailsService.loadUserByUsername("mary@acme.com"))
+                .isInstanceOf(UsernameNotFoundException.class);
+        verify(repo, times(2)).findByEmailIgnoreCase("mary@acme.com");
+    }
+
+    @Test
+    void willStoreRehashedPasswordAndReloadUser() {
+        UserDetails user = userDetailsService.loadUserByUsername("john@acme.com");
+
+        UserDetails updated = userDetailsService.updatePassword(user, "{bcrypt}rehashed");
+
+        assertThat(updated.getPassword()).isEqualTo("{bcrypt}rehashed");
+        assertThat(employee.getPassword()).isEqualTo("{bcrypt}rehashed");
+        verify(repo).save(employee);
+        assertThat(userDetailsService.loadUserByUsername("john@acme.com").getPassword()).isEqualTo("{bcrypt}rehashed");
+        verify(repo, times(3)).findByEmailIgnoreCase(anyString());
+    }
+}
@@ -4,6 +4,7 @@ package account.utils;
 import account.models.Employee;
 import account.models.LoginInformation;
 import account.models.Payroll;
+import account.models.Role;
 import com.github.javafaker.Faker;
 import org.springframework.stereotype.Component;
 
@@ -20,13 +21,12 @@ public class EmployeeFaker {
         String name = faker.name().firstName().toLowerCase();
         String lastname = faker.name().lastName().toLowerCase();
         String email = "%s_%s@acme.com".formatted(name, lastname);
-        List<String> roles = new ArrayList<>(List.of("USER"));
         return Employee.builder()
                 .name(name)
                 .lastname(lastname)
                 .email(email)
                 .password(faker.internet().password(13, 20))
-                .roles(roles)
+                .roles(Role.USER)
                 .loginInformation(new LoginInformation())
                 .build();
     }
@@ -61,10 +61,7 @@ public class EmployeeFaker {
         int y = faker.number().numberBetween(year10Ago, yearNow);
         int m = faker.number().numberBetween(1, 12);
 
-        String period = "%d-%d".formatted(m, y);
-        if (period.length() != 7) {
-            period = "0" + period;
-        }
+        YearMonth period = YearMonth.of(y, m);
 
         long salary = faker.number().numberBetween(1000, 9999);
         salary = salary - salary % 100;
@@ -76,12 +73,9 @@ public class EmployeeFaker {
     }
 
     public Payroll generatePayrollFromPrev(Payroll payroll) {
-        YearMonth period = YearMonth.parse(payroll.getPeriod(), Payroll.PERIOD_FORMATTER);
-        String newPeriod = period.plusMonths(1).format(Payroll.PERIOD_FORMATTER);
-
         return Payroll.builder()
                 .salary(payroll.getSalary())
-                .period(newPeriod)
+                .period(payroll.getPeriod().plusMonths(1))
                 .build();
     }
 }
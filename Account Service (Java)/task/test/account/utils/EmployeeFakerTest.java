@@ -7,7 +7,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import java.time.YearMonth;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
@@ -29,7 +28,7 @@ public class EmployeeFakerTest {
         assertThat(employee).hasFieldOrProperty("email");
         assertThat(employee).hasFieldOrProperty("password");
         assertThat(employee).hasFieldOrProperty("roles");
-        assertThat(employee.getRoles()).asList().isNotEmpty();
+        assertThat(employee.getRoles()).isNotEmpty();
     }
 
     @Test
@@ -50,7 +49,6 @@ public class EmployeeFakerTest {
     @Test
     void canGeneratePayrolls() {
         int count = 10;
-        DateTimeFormatter fmt = Payroll.PERIOD_FORMATTER;
         List<Payroll> payrolls = faker.generatePayrolls(count);
 
         assertThat(payrolls).hasSize(count);
@@ -58,20 +56,17 @@ public class EmployeeFakerTest {
         assertThat(payrolls).allSatisfy(payroll -> {
             assertThat(payroll).hasFieldOrProperty("period");
             assertThat(payroll).hasFieldOrProperty("salary");
-            assertThat(payroll.getPeriod()).matches(Regex.PAYROLL_PERIOD);
+            assertThat(payroll.getPeriod().format(Payroll.PERIOD_FORMATTER)).matches(Regex.PAYROLL_PERIOD);
         });
 
-        Set<String> periodSet = payrolls.stream().map(Payroll::getPeriod).collect(Collectors.toSet());
+        Set<YearMonth> periodSet = payrolls.stream().map(Payroll::getPeriod).collect(Collectors.toSet());
         assertThat(periodSet).hasSize(count);
 
         for (int i = 1; i < payrolls.size(); i++) {
-            String prev = payrolls.get(i - 1).getPeriod();
-            String curr = payrolls.get(i).getPeriod();
+            YearMonth prev = payrolls.get(i - 1).getPeriod();
+            YearMonth curr = payrolls.get(i).getPeriod();
 
-            YearMonth prevYM = YearMonth.parse(prev, fmt);
-            YearMonth currYM = YearMonth.parse(curr, fmt);
-
-            assertThat(prevYM.isBefore(currYM)).isTrue();
+            assertThat(prev.isBefore(curr)).isTrue();
         }
 
     }
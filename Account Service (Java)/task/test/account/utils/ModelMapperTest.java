@@ -5,13 +5,14 @@ import account.requestBodies.PayrollRequest;
 import account.responses.SignupResponse;
 import account.models.Employee;
 import account.models.Payroll;
+import account.models.Role;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
-import java.util.List;
+import java.time.YearMonth;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -35,7 +36,7 @@ public class ModelMapperTest {
                 .build();
         payroll = Payroll.builder()
                 .salary(123456L)
-                .period("01-2024")
+                .period(YearMonth.of(2024, 1))
                 .employee(employee)
                 .build();
     }
@@ -54,7 +55,7 @@ public class ModelMapperTest {
     void canConvertPayrollToPayrollRequestBody (){
         PayrollRequest body = modelMapper.map(payroll, PayrollRequest.class);
 
-        assertThat(body.getPeriod()).isEqualTo(payroll.getPeriod());
+        assertThat(body.getPeriod()).isEqualTo("01-2024");
         assertThat(body.getSalary()).isEqualTo(payroll.getSalary());
         assertThat(body.getEmployeeEmail()).isEqualTo(employee.getEmail());
     }
@@ -67,7 +68,7 @@ public class ModelMapperTest {
                 .lastname("Doe")
                 .email("johndoe@acme.com")
                 .password("secretpassword")
-                .roles(List.of("USER"))
+                .roles(Role.USER)
                 .build();
         SignupResponse response = modelMapper.map(employee, SignupResponse.class);
 
@@ -75,7 +76,7 @@ public class ModelMapperTest {
         assertThat(response.getLastname()).isEqualTo(employee.getLastname());
         assertThat(response.getEmail()).isEqualTo(employee.getEmail());
         assertThat(response.getId()).isEqualTo(employee.getId());
-        assertThat(response.getRoles()).isEqualTo(employee.getRoles());
+        assertThat(response.getRoles()).containsExactly("USER");
     }
 
 }
@@ -0,0 +1,41 @@
+package account.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PayrollFormatterTest {
+
+    @Test
+    void canFormatSalary() {
+        assertThat(PayrollFormatter.formatSalary(123456)).isEqualTo("1234 dollar(s) 56 cent(s)");
+        assertThat(PayrollFormatter.formatSalary(1050)).isEqualTo("10 dollar(s) 50 cent(s)");
+        assertThat(PayrollFormatter.formatSalary(1005)).isEqualTo("10 dollar(s) 05 cent(s)");
+        assertThat(PayrollFormatter.formatSalary(1000)).isEqualTo("10 dollar(s) 00 cent(s)");
+        assertThat(PayrollFormatter.formatSalary(7)).isEqualTo("0 dollar(s) 07 cent(s)");
+        assertThat(PayrollFormatter.formatSalary(0)).isEqualTo("0 dollar(s) 00 cent(s)");
+        assertThat(PayrollFormatter.formatSalary(1_000_000_000_00L)).isEqualTo("1000000000 dollar(s) 00 cent(s)");
+        assertThat(PayrollFormatter.formatSalary(-1050)).isEqualTo("-10 dollar(s) 50 cent(s)");
+        assertThat(PayrollFormatter.formatSalary(-5)).isEqualTo("-0 dollar(s) 05 cent(s)");
+    }
+
+    @Test
+    void canFormatPeriod() {
+        assertThat(PayrollFormatter.formatPeriod(YearMonth.of(2024, 1))).isEqualTo("January-2024");
+        assertThat(PayrollFormatter.formatPeriod(YearMonth.of(1999, 12))).isEqualTo("December-1999");
+    }
+
+    @Test
+    void canAppendToSharedBuffer() {
+        StringBuilder out = new StringBuilder();
+
+        PayrollFormatter.appendPeriod(out, YearMonth.of(2024, 5)).append(": ");
+        PayrollFormatter.appendSalary(out, 123456);
+
+        assertThat(out).hasToString("May-2024: 1234 dollar(s) 56 cent(s)");
+        assertThat(PayrollFormatter.formatSalary(1)).isEqualTo("0 dollar(s) 01 cent(s)");
+        assertThat(PayrollFormatter.formatPeriod(YearMonth.of(2024, 2))).isEqualTo("February-2024");
+    }
+}